@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the allocations of a whole game played from a packed position.
+ * The search takes its board and per-ply state from the thread's arena, so with the
+ * allocation profiler of BenchmarkRunner, gc.alloc.rate.norm shows a small constant per move
+ * instead of a cost per searched node. The transposition table is disabled, since a game
+ * allocates its table once and that would hide the rest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public BoardCorpus.Phase phase;
+
+    @Param({"ALPHA_BETA", "PVS"})
+    public String algorithm;
+
+    private long[] positions;
+
+    private Object config;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+
+        BoardCorpus corpus = new BoardCorpus(this.phase);
+        this.positions = new long[BoardCorpus.SIZE];
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            this.positions[i] = Engine.pack(corpus.black[i], corpus.white[i]);
+        }
+
+        this.config = Engine.newConfig(this.algorithm, 3, 0);
+    }
+
+    @Benchmark
+    public char playGame() {
+
+        long position = this.positions[this.next];
+
+        this.next = (this.next + 1) % BoardCorpus.SIZE;
+
+        return Engine.play(position, this.config);
+    }
+}
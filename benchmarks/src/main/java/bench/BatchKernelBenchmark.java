@@ -0,0 +1,101 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the batch kernels over many copies of the corpus of a phase, laid out as
+ * structure of arrays. The forked JVM has the vector module, so "vector" measures the vector
+ * kernel and "scalar" the per-position fallback on the same data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchKernelBenchmark {
+
+    //Number of positions of a batch.
+    private static final int POSITIONS = 64 * BoardCorpus.SIZE;
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public BoardCorpus.Phase phase;
+
+    @Param({"scalar", "vector"})
+    public String kernelType;
+
+    private Object kernel;
+
+    private long[] black;
+
+    private long[] white;
+
+    private long[] moves;
+
+    private long[] cells;
+
+    private int[] values;
+
+    @Setup
+    public void setup() {
+
+        BoardCorpus corpus = new BoardCorpus(this.phase);
+
+        this.kernel = Engine.newKernel(this.kernelType.equals("vector"));
+        this.black = new long[POSITIONS];
+        this.white = new long[POSITIONS];
+        this.moves = new long[POSITIONS];
+        this.cells = new long[POSITIONS];
+        this.values = new int[POSITIONS];
+
+        for (int i = 0; i < POSITIONS; i++) {
+            this.black[i] = corpus.black[i % BoardCorpus.SIZE];
+            this.white[i] = corpus.white[i % BoardCorpus.SIZE];
+        }
+
+        //Every position plays its lowest legal move.
+        Engine.legalMoves(this.kernel, this.black, this.white, this.moves, POSITIONS);
+
+        for (int i = 0; i < POSITIONS; i++) {
+            this.cells[i] = Long.lowestOneBit(this.moves[i]);
+        }
+    }
+
+    @Benchmark
+    public void legalMoves(Blackhole blackhole) {
+
+        Engine.legalMoves(this.kernel, this.black, this.white, this.moves, POSITIONS);
+        blackhole.consume(this.moves);
+    }
+
+    @Benchmark
+    public void makeMoves(Blackhole blackhole) {
+
+        long[] black = this.black.clone();
+        long[] white = this.white.clone();
+
+        Engine.makeMoves(this.kernel, black, white, this.cells, true, POSITIONS);
+        blackhole.consume(black);
+        blackhole.consume(white);
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+
+        Engine.evaluate(this.kernel, this.black, this.white, this.values, POSITIONS);
+        blackhole.consume(this.values);
+    }
+}
@@ -0,0 +1,121 @@
+package bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * A fixed corpus of positions for the benchmarks.
+ * Positions are built by random legal play from a seeded generator,
+ * so every run and every machine benchmarks the same boards.
+ */
+public final class BoardCorpus {
+
+    /**
+     * Game phases, by the number of occupied cells.
+     */
+    public enum Phase {
+        OPENING(3, 7),
+        MIDGAME(11, 15),
+        ENDGAME(19, 23);
+
+        //Fewest occupied cells.
+        final int minOccupied;
+
+        //Most occupied cells.
+        final int maxOccupied;
+
+        Phase(int minOccupied, int maxOccupied) {
+            this.minOccupied = minOccupied;
+            this.maxOccupied = maxOccupied;
+        }
+    }
+
+    //Seed of the corpus.
+    private static final long SEED = 0x5EED_2017L;
+
+    //Positions per phase.
+    static final int SIZE = 64;
+
+    //Black cells of the positions.
+    final long[] black = new long[SIZE];
+
+    //White cells of the positions.
+    final long[] white = new long[SIZE];
+
+    /**
+     * Builds the positions of a phase.
+     *
+     * @param phase game phase
+     */
+    BoardCorpus(Phase phase) {
+
+        SplittableRandom random = new SplittableRandom(SEED + phase.ordinal());
+        int              cells  = Engine.BOARD_SIZE * Engine.BOARD_SIZE;
+        int              count  = 0;
+
+        while (count < SIZE) {
+
+            //Start from one piece of each color.
+            int  first  = random.nextInt(cells);
+            int  second = (first + 1 + random.nextInt(cells - 1)) % cells;
+            long b      = 1L << first;
+            long w      = 1L << second;
+            int  target = phase.minOccupied + random.nextInt(phase.maxOccupied - phase.minOccupied + 1);
+            boolean blackToMove = true;
+
+            while (Long.bitCount(b | w) < target) {
+
+                long moves = Engine.legalMoves(b, w, Engine.BOARD_SIZE);
+                int  move  = nthBit(moves, random.nextInt(Long.bitCount(moves)));
+
+                if (blackToMove) {
+                    long changed = Engine.performMovement(move, b, Engine.BOARD_SIZE);
+                    b |= changed;
+                    w &= ~changed;
+                } else {
+                    long changed = Engine.performMovement(move, w, Engine.BOARD_SIZE);
+                    w |= changed;
+                    b &= ~changed;
+                }
+
+                blackToMove = !blackToMove;
+            }
+
+            //A fill may overshoot the phase, such positions are dropped.
+            if (Long.bitCount(b | w) <= phase.maxOccupied) {
+                this.black[count] = b;
+                this.white[count] = w;
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Returns a position as a character board.
+     *
+     * @param index position index
+     * @return game board
+     */
+    char[][] board(int index) {
+
+        char[][] board = new char[Engine.BOARD_SIZE][Engine.BOARD_SIZE];
+
+        for (int i = 0; i < Engine.BOARD_SIZE; i++) {
+            for (int j = 0; j < Engine.BOARD_SIZE; j++) {
+
+                long cell = 1L << (i * Engine.BOARD_SIZE + j);
+                board[i][j] = (this.black[index] & cell) != 0 ? 'B' : (this.white[index] & cell) != 0 ? 'W' : 'E';
+            }
+        }
+
+        return board;
+    }
+
+    private static int nthBit(long mask, int n) {
+
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+
+        return Long.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,368 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Method handles into the game engine.
+ * The engine classes live in the default package, which named packages can't import,
+ * so the benchmarks reach them through constant method handles that the JIT inlines.
+ */
+final class Engine {
+
+    //Board size of the corpus.
+    static final int BOARD_SIZE = 5;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Class<?> GAME             = load("Game");
+    private static final Class<?> NODE             = load("Node");
+    private static final Class<?> SEARCH           = load("Search");
+    private static final Class<?> SEARCH_CONFIG    = load("SearchConfig");
+    private static final Class<?> SEARCH_ALGORITHM = load("SearchAlgorithm");
+    private static final Class<?> TABLE            = load("TranspositionTable");
+    private static final Class<?> POSITION         = load("Position");
+    private static final Class<?> BATCH_KERNEL     = load("BatchKernel");
+
+    private static final MethodHandle IS_LEGAL_MOVE = findStatic(GAME, "isLegalMove",
+            MethodType.methodType(boolean.class, int.class, int.class, long.class, long.class, int.class));
+
+    private static final MethodHandle LEGAL_MOVES = findStatic(GAME, "legalMoves",
+            MethodType.methodType(long.class, long.class, long.class, int.class));
+
+    private static final MethodHandle PERFORM_MOVEMENT = findStatic(GAME, "performMovement",
+            MethodType.methodType(long.class, int.class, long.class, int.class));
+
+    private static final MethodHandle PLAY = findStatic(GAME, "play",
+            MethodType.methodType(char.class, char[][].class));
+
+    private static final MethodHandle PLAY_POSITION = erase(findStatic(GAME, "play",
+            MethodType.methodType(char.class, long.class, int.class, SEARCH_CONFIG)));
+
+    private static final MethodHandle PACK = findStatic(POSITION, "pack",
+            MethodType.methodType(long.class, long.class, long.class));
+
+    private static final MethodHandle NEW_VECTOR_KERNEL = erase(findStatic(BATCH_KERNEL, "create",
+            MethodType.methodType(BATCH_KERNEL, int.class)));
+
+    private static final MethodHandle NEW_SCALAR_KERNEL = erase(findStatic(BATCH_KERNEL, "scalar",
+            MethodType.methodType(BATCH_KERNEL, int.class)));
+
+    private static final MethodHandle KERNEL_LEGAL_MOVES = erase(findVirtual(BATCH_KERNEL, "legalMoves",
+            MethodType.methodType(void.class, long[].class, long[].class, long[].class, int.class)));
+
+    private static final MethodHandle KERNEL_MAKE_MOVES = erase(findVirtual(BATCH_KERNEL, "makeMoves",
+            MethodType.methodType(void.class, long[].class, long[].class, long[].class, boolean.class, int.class)));
+
+    private static final MethodHandle KERNEL_EVALUATE = erase(findVirtual(BATCH_KERNEL, "evaluate",
+            MethodType.methodType(void.class, long[].class, long[].class, int[].class, int.class)));
+
+    private static final MethodHandle KERNEL_LANES = erase(findVirtual(BATCH_KERNEL, "getLanes",
+            MethodType.methodType(int.class)));
+
+    private static final MethodHandle MINIMAX = erase(findPrivateStatic(GAME, "minimax",
+            MethodType.methodType(NODE, NODE, int.class, boolean.class)));
+
+    private static final MethodHandle NEW_NODE = erase(findConstructor(NODE,
+            MethodType.methodType(void.class, long.class, long.class, int.class, char.class)));
+
+    private static final MethodHandle GET_SUCCESSORS = erase(findVirtual(NODE, "getSuccessors",
+            MethodType.methodType(java.util.ArrayList.class, boolean.class)));
+
+    private static final MethodHandle SUCCESSORS = erase(findVirtual(NODE, "successors",
+            MethodType.methodType(Iterable.class, boolean.class)));
+
+    private static final MethodHandle GET_EMPTY_COUNTER = erase(findVirtual(NODE, "getEmptyCounter",
+            MethodType.methodType(int.class)));
+
+    private static final MethodHandle NEW_CONFIG = erase(findConstructor(SEARCH_CONFIG,
+            MethodType.methodType(void.class)));
+
+    private static final MethodHandle SET_ALGORITHM = erase(findVirtual(SEARCH_CONFIG, "setAlgorithm",
+            MethodType.methodType(void.class, SEARCH_ALGORITHM)));
+
+    private static final MethodHandle SET_DEPTH = erase(findVirtual(SEARCH_CONFIG, "setDepth",
+            MethodType.methodType(void.class, int.class)));
+
+    private static final MethodHandle SET_TABLE_BYTES = erase(findVirtual(SEARCH_CONFIG, "setTableBytes",
+            MethodType.methodType(void.class, long.class)));
+
+    private static final MethodHandle NEW_TABLE = erase(findConstructor(TABLE,
+            MethodType.methodType(void.class, long.class)));
+
+    private static final MethodHandle NEW_SEARCH = erase(findConstructor(SEARCH,
+            MethodType.methodType(void.class, SEARCH_CONFIG, TABLE)));
+
+    private static final MethodHandle SEARCH_RUN = erase(findVirtual(SEARCH, "run",
+            MethodType.methodType(NODE, NODE, int.class, boolean.class)));
+
+    /**
+     * Private constructor.
+     */
+    private Engine() {
+
+    }
+
+    static boolean isLegalMove(int row, int column, long black, long white, int boardSize) {
+        try {
+            return (boolean) IS_LEGAL_MOVE.invokeExact(row, column, black, white, boardSize);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long legalMoves(long black, long white, int boardSize) {
+        try {
+            return (long) LEGAL_MOVES.invokeExact(black, white, boardSize);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long performMovement(int square, long own, int boardSize) {
+        try {
+            return (long) PERFORM_MOVEMENT.invokeExact(square, own, boardSize);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static char play(char[][] board) {
+        try {
+            return (char) PLAY.invokeExact(board);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static char play(long position, Object config) {
+        try {
+            return (char) PLAY_POSITION.invokeExact(position, BOARD_SIZE, config);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static long pack(long black, long white) {
+        try {
+            return (long) PACK.invokeExact(black, white);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates search settings.
+     *
+     * @param algorithm  name of the search algorithm
+     * @param depth      search depth
+     * @param tableBytes memory of the transposition table of a game, 0 for none
+     * @return settings
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object newConfig(String algorithm, int depth, long tableBytes) {
+        try {
+            Object config = (Object) NEW_CONFIG.invokeExact();
+
+            SET_ALGORITHM.invokeExact(config, (Object) Enum.valueOf((Class) SEARCH_ALGORITHM, algorithm));
+            SET_DEPTH.invokeExact(config, depth);
+            SET_TABLE_BYTES.invokeExact(config, tableBytes);
+
+            return config;
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates a batch kernel.
+     *
+     * @param vector the vector kernel when the runtime has it, or the scalar one
+     * @return kernel
+     */
+    static Object newKernel(boolean vector) {
+        try {
+            return vector ? (Object) NEW_VECTOR_KERNEL.invokeExact(BOARD_SIZE)
+                    : (Object) NEW_SCALAR_KERNEL.invokeExact(BOARD_SIZE);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void legalMoves(Object kernel, long[] black, long[] white, long[] moves, int count) {
+        try {
+            KERNEL_LEGAL_MOVES.invokeExact(kernel, black, white, moves, count);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void makeMoves(Object kernel, long[] black, long[] white, long[] cells, boolean isBlack, int count) {
+        try {
+            KERNEL_MAKE_MOVES.invokeExact(kernel, black, white, cells, isBlack, count);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void evaluate(Object kernel, long[] black, long[] white, int[] values, int count) {
+        try {
+            KERNEL_EVALUATE.invokeExact(kernel, black, white, values, count);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getLanes(Object kernel) {
+        try {
+            return (int) KERNEL_LANES.invokeExact(kernel);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object minimax(Object node, int depth, boolean maximizingPlayer) {
+        try {
+            return (Object) MINIMAX.invokeExact(node, depth, maximizingPlayer);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object newNode(long black, long white, int boardSize, char color) {
+        try {
+            return (Object) NEW_NODE.invokeExact(black, white, boardSize, color);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> getSuccessors(Object node, boolean isMaximizing) {
+        try {
+            return (List<Object>) (Object) GET_SUCCESSORS.invokeExact(node, isMaximizing);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Iterable<Object> successors(Object node, boolean isMaximizing) {
+        try {
+            return (Iterable<Object>) (Object) SUCCESSORS.invokeExact(node, isMaximizing);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getEmptyCounter(Object node) {
+        try {
+            return (int) GET_EMPTY_COUNTER.invokeExact(node);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates a search with its own transposition table.
+     *
+     * @param algorithm  name of the search algorithm
+     * @param depth      search depth
+     * @param tableBytes memory of the transposition table, 0 for none
+     * @return search
+     */
+    static Object newSearch(String algorithm, int depth, long tableBytes) {
+        try {
+            Object config = newConfig(algorithm, depth, tableBytes);
+            Object table  = tableBytes > 0 ? (Object) NEW_TABLE.invokeExact(tableBytes) : null;
+
+            return (Object) NEW_SEARCH.invokeExact(config, table);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object run(Object search, Object node, int depth, boolean maximizingPlayer) {
+        try {
+            return (Object) SEARCH_RUN.invokeExact(search, node, depth, maximizingPlayer);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Engine class not found: " + name, e);
+        }
+    }
+
+    private static MethodHandle findStatic(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Engine method not found: " + name, e);
+        }
+    }
+
+    private static MethodHandle findPrivateStatic(Class<?> owner, String name, MethodType type) {
+        try {
+            return MethodHandles.privateLookupIn(owner, LOOKUP).findStatic(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Engine method not found: " + name, e);
+        }
+    }
+
+    private static MethodHandle findVirtual(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Engine method not found: " + name, e);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> owner, MethodType type) {
+        try {
+            return LOOKUP.findConstructor(owner, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Engine constructor not found: " + owner.getName(), e);
+        }
+    }
+
+    /**
+     * Replaces the engine classes in a handle type with Object, so the handle can be invoked exactly.
+     * Array parameters keep their types.
+     */
+    private static MethodHandle erase(MethodHandle handle) {
+
+        MethodType type = handle.type();
+
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (!type.parameterType(i).isPrimitive() && !type.parameterType(i).isArray()) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+
+        if (!type.returnType().isPrimitive()) {
+            type = type.changeReturnType(Object.class);
+        }
+
+        return handle.asType(type);
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+
+        return new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,114 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of move generation and move execution over the whole corpus of a phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public BoardCorpus.Phase phase;
+
+    private BoardCorpus corpus;
+
+    private Object[] nodes;
+
+    @Setup
+    public void setup() {
+
+        this.corpus = new BoardCorpus(this.phase);
+        this.nodes = new Object[BoardCorpus.SIZE];
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            this.nodes[i] = Engine.newNode(this.corpus.black[i], this.corpus.white[i], Engine.BOARD_SIZE, 'W');
+        }
+    }
+
+    @Benchmark
+    public void isLegalMove(Blackhole blackhole) {
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            for (int row = 0; row < Engine.BOARD_SIZE; row++) {
+                for (int column = 0; column < Engine.BOARD_SIZE; column++) {
+                    blackhole.consume(Engine.isLegalMove(row, column, this.corpus.black[i], this.corpus.white[i],
+                            Engine.BOARD_SIZE));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void legalMoves(Blackhole blackhole) {
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            blackhole.consume(Engine.legalMoves(this.corpus.black[i], this.corpus.white[i], Engine.BOARD_SIZE));
+        }
+    }
+
+    @Benchmark
+    public void performMovement(Blackhole blackhole) {
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+
+            long moves = Engine.legalMoves(this.corpus.black[i], this.corpus.white[i], Engine.BOARD_SIZE);
+
+            while (moves != 0) {
+                blackhole.consume(Engine.performMovement(Long.numberOfTrailingZeros(moves), this.corpus.black[i],
+                        Engine.BOARD_SIZE));
+                moves &= moves - 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public void getSuccessors(Blackhole blackhole) {
+
+        for (Object node : this.nodes) {
+            blackhole.consume(Engine.getSuccessors(node, true));
+        }
+    }
+
+    /**
+     * A cut node only needs its first child, which the lazy iterator creates alone.
+     */
+    @Benchmark
+    public void firstSuccessor(Blackhole blackhole) {
+
+        for (Object node : this.nodes) {
+            blackhole.consume(Engine.successors(node, true).iterator().next());
+        }
+    }
+
+    /**
+     * Node construction counts the colors of the board, which countColors used to do on demand.
+     */
+    @Benchmark
+    public void countColors(Blackhole blackhole) {
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+
+            Object node = Engine.newNode(this.corpus.black[i], this.corpus.white[i], Engine.BOARD_SIZE, 'W');
+            blackhole.consume(Engine.getEmptyCounter(node));
+        }
+    }
+}
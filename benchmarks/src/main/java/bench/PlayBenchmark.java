@@ -0,0 +1,52 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of whole games, from every position of a phase to the winner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public BoardCorpus.Phase phase;
+
+    private char[][][] boards;
+
+    @Setup
+    public void setup() {
+
+        BoardCorpus corpus = new BoardCorpus(this.phase);
+        this.boards = new char[BoardCorpus.SIZE][][];
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            this.boards[i] = corpus.board(i);
+        }
+    }
+
+    @Benchmark
+    public void play(Blackhole blackhole) {
+
+        for (char[][] board : this.boards) {
+            blackhole.consume(Engine.play(board));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of a single search from every position of a phase, at several depths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public BoardCorpus.Phase phase;
+
+    @Param({"1", "2", "3", "4"})
+    public int depth;
+
+    private Object[] nodes;
+
+    @Setup
+    public void setup() {
+
+        BoardCorpus corpus = new BoardCorpus(this.phase);
+        this.nodes = new Object[BoardCorpus.SIZE];
+
+        for (int i = 0; i < BoardCorpus.SIZE; i++) {
+            this.nodes[i] = Engine.newNode(corpus.black[i], corpus.white[i], Engine.BOARD_SIZE, 'W');
+        }
+    }
+
+    @Benchmark
+    public void minimax(Blackhole blackhole) {
+
+        for (Object node : this.nodes) {
+            blackhole.consume(Engine.minimax(node, this.depth, true));
+        }
+    }
+
+    @Benchmark
+    public void alphaBeta(Blackhole blackhole) {
+
+        Object search = Engine.newSearch("ALPHA_BETA", this.depth, 0);
+
+        for (Object node : this.nodes) {
+            blackhole.consume(Engine.run(search, node, this.depth, true));
+        }
+    }
+
+    @Benchmark
+    public void principalVariation(Blackhole blackhole) {
+
+        Object search = Engine.newSearch("PVS", this.depth, 1L << 16);
+
+        for (Object node : this.nodes) {
+            blackhole.consume(Engine.run(search, node, this.depth, true));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The class plays games between two engine configurations to tell which one is stronger.
+ * Every seeded random opening is played twice, once with each engine as black, and the pairs
+ * are played in parallel on all the cores. A sequential probability ratio test stops the
+ * games as soon as the results decide between the two Elo hypotheses.
+ *
+ * Unlike Game.play, an engine only plays the first move of its chosen line, and the other
+ * engine answers it.
+ *
+ * Usage: Arena &lt;engine A&gt; &lt;engine B&gt; [max games] [elo0] [elo1] [board size] [threads]
+ * An engine is a comma separated list of settings, for example depth=3,algorithm=PVS,
+ * table=65536,time=0,nodes=0,endgame=0,order=HASH_MOVE+KILLERS,patterns=5,ponder=true,
+ * and "default" for the defaults. The patterns setting evaluates the boards of the given size
+ * with the pattern tables of the heuristic, and a pondering engine searches its expected next
+ * position while the other engine is thinking.
+ */
+public class Arena {
+
+    //Seed of the openings.
+    private static final long SEED = 20171017L;
+
+    //Probabilities of the test deciding wrongly.
+    private static final double ALPHA = 0.05;
+    private static final double BETA  = 0.05;
+
+    //Settings of the two engines.
+    private final SearchConfig first;
+    private final SearchConfig second;
+
+    //Board size.
+    private final int boardSize;
+
+    /**
+     * Constructor.
+     *
+     * @param first     settings of the first engine
+     * @param second    settings of the second engine
+     * @param boardSize board size, at most Bitboard.MAX_BOARD_SIZE
+     */
+    public Arena(SearchConfig first, SearchConfig second, int boardSize) {
+
+        this.first = first;
+        this.second = second;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Plays pairs of games until the test decides or the games run out.
+     *
+     * @param maxGames maximum number of games
+     * @param sprt     test receiving the results of the first engine
+     * @param threads  number of games played at the same time
+     * @return number of games played
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public long run(long maxGames, Sprt sprt, int threads) throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicBoolean   decided  = new AtomicBoolean();
+
+        for (long pair = 0; pair < maxGames / 2; pair++) {
+
+            long opening = pair;
+
+            executor.execute(() -> {
+
+                if (decided.get()) {
+                    return;
+                }
+
+                long[] cells = opening(opening);
+
+                //The same opening with each engine as black.
+                sprt.add(playGame(cells[0], cells[1], this.first, this.second) == 'B');
+                sprt.add(playGame(cells[0], cells[1], this.second, this.first) == 'W');
+
+                if (sprt.status() != Sprt.CONTINUE) {
+                    decided.set(true);
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        return sprt.getWins() + sprt.getLosses();
+    }
+
+    /**
+     * Creates a seeded random opening: a few cells of each color on an empty board.
+     *
+     * @param index opening index
+     * @return black and white cells masks
+     */
+    long[] opening(long index) {
+
+        SplittableRandom random = new SplittableRandom(SEED + index);
+        int              cells  = this.boardSize * this.boardSize;
+        int              stones = 1 + random.nextInt(Math.max(1, cells / 8));
+        long             black  = 0;
+        long             white  = 0;
+
+        for (int i = 0; i < 2 * stones; i++) {
+
+            long cell = 1L << random.nextInt(cells);
+
+            if (((black | white) & cell) == 0) {
+
+                if (i % 2 == 0) {
+                    black |= cell;
+                } else {
+                    white |= cell;
+                }
+            }
+        }
+
+        return new long[] {black, white};
+    }
+
+    /**
+     * Plays a game, one move per turn, with black moving first.
+     *
+     * @param black       black cells mask
+     * @param white       white cells mask
+     * @param blackConfig settings of the black engine
+     * @param whiteConfig settings of the white engine
+     * @return winning color
+     */
+    char playGame(long black, long white, SearchConfig blackConfig, SearchConfig whiteConfig) {
+
+        Search  blackSearch = new Search(blackConfig, newTable(blackConfig));
+        Search  whiteSearch = new Search(whiteConfig, newTable(whiteConfig));
+        Node    node        = new Node(black, white, this.boardSize, 'W');
+        boolean blackMoves  = true;
+
+        while (!node.isTerminal()) {
+
+            Search search = blackMoves ? blackSearch : whiteSearch;
+
+            search.run(node, blackMoves);
+            node = node.getSuccessor(search.getStats().getMove(), blackMoves);
+            blackMoves = !blackMoves;
+
+            //The engine thinks about its next move while the other one is thinking.
+            search.ponder();
+        }
+
+        blackSearch.stopPondering();
+        whiteSearch.stopPondering();
+
+        return Game.winner(node);
+    }
+
+    /**
+     * Creates the transposition table of an engine.
+     *
+     * @param config engine settings
+     * @return table, or null when disabled
+     */
+    private static TranspositionTable newTable(SearchConfig config) {
+        return config.getTableBytes() > 0 ? new TranspositionTable(config.getTableBytes()) : null;
+    }
+
+    /**
+     * Parses engine settings.
+     *
+     * @param text comma separated name=value settings, or "default"
+     * @return settings
+     */
+    static SearchConfig parseConfig(String text) {
+
+        SearchConfig config = new SearchConfig();
+
+        if (text.equals("default")) {
+            return config;
+        }
+
+        for (String setting : text.split(",")) {
+
+            String[] parts = setting.split("=", 2);
+
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad engine setting: " + setting);
+            }
+
+            switch (parts[0]) {
+                case "depth":
+                    config.setDepth(Integer.parseInt(parts[1]));
+                    break;
+                case "algorithm":
+                    config.setAlgorithm(SearchAlgorithm.valueOf(parts[1]));
+                    break;
+                case "table":
+                    config.setTableBytes(Long.parseLong(parts[1]));
+                    break;
+                case "time":
+                    config.setTimeBudgetMillis(Long.parseLong(parts[1]));
+                    break;
+                case "nodes":
+                    config.setNodeBudget(Long.parseLong(parts[1]));
+                    break;
+                case "endgame":
+                    config.setEndgameEmpties(Integer.parseInt(parts[1]));
+                    break;
+                case "order":
+                    config.setMoveOrder(parseOrder(parts[1]));
+                    break;
+                case "ponder":
+                    config.setPonder(Boolean.parseBoolean(parts[1]));
+                    break;
+                case "patterns":
+                    config.setEvaluator(PatternEvaluator.standard(Integer.parseInt(parts[1])));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown engine setting: " + parts[0]);
+            }
+        }
+
+        return config;
+    }
+
+    /**
+     * Parses move ordering techniques separated by '+'.
+     *
+     * @param text techniques, or "none"
+     * @return techniques
+     */
+    private static EnumSet<MoveOrder> parseOrder(String text) {
+
+        EnumSet<MoveOrder> order = EnumSet.noneOf(MoveOrder.class);
+
+        if (!text.equals("none")) {
+
+            for (String name : text.split("\\+")) {
+                order.add(MoveOrder.valueOf(name));
+            }
+        }
+
+        return order;
+    }
+
+    public static void main(String args[]) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.out.println("Usage: Arena <engine A> <engine B> [max games] [elo0] [elo1] [board size] [threads]");
+            return;
+        }
+
+        SearchConfig first     = parseConfig(args[0]);
+        SearchConfig second    = parseConfig(args[1]);
+        long         maxGames  = args.length > 2 ? Long.parseLong(args[2]) : 10000;
+        double       elo0      = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        double       elo1      = args.length > 4 ? Double.parseDouble(args[4]) : 20;
+        int          boardSize = args.length > 5 ? Integer.parseInt(args[5]) : 5;
+        int          threads   = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+        Arena arena = new Arena(first, second, boardSize);
+        Sprt  sprt  = new Sprt(elo0, elo1, ALPHA, BETA);
+        long  start = System.nanoTime();
+        long  games = arena.run(maxGames, sprt, threads);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int    status  = sprt.status();
+
+        System.out.printf("Games: %d in %.1f s (%.1f games/s)%n", games, seconds, games / seconds);
+        System.out.printf("A wins %d, loses %d, Elo %+.1f +/- %.1f%n", sprt.getWins(), sprt.getLosses(), sprt.elo(),
+                sprt.eloError());
+        System.out.printf("SPRT elo0=%.1f elo1=%.1f: LLR %.2f in [%.2f, %.2f], %s%n", elo0, elo1,
+                sprt.logLikelihoodRatio(), sprt.getLowerBound(), sprt.getUpperBound(),
+                status == Sprt.ACCEPT_H1 ? "H1 accepted" : status == Sprt.ACCEPT_H0 ? "H0 accepted" : "inconclusive");
+    }
+}
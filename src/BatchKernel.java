@@ -0,0 +1,159 @@
+/**
+ * The class runs the move generation, the moves and the heuristic of many independent positions
+ * at once. The positions are laid out as structure of arrays: the black cells masks in one array
+ * and the white cells masks in another, position i being element i of both.
+ *
+ * This is the scalar kernel, which handles a position at a time with the same functions the search
+ * uses. When the runtime has the incubating vector module (java --add-modules jdk.incubator.vector),
+ * create returns VectorBatchKernel, which handles a full vector of positions per step and gives the
+ * same results.
+ */
+public class BatchKernel {
+
+    //Is the vector module in the boot layer.
+    private static final boolean VECTOR_MODULE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    //Board size of the positions.
+    protected final int boardSize;
+
+    /**
+     * Constructor.
+     *
+     * @param boardSize board size of the positions, at most Bitboard.MAX_BOARD_SIZE
+     */
+    protected BatchKernel(int boardSize) {
+
+        if (boardSize < 1 || boardSize > Bitboard.MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size: " + boardSize);
+        }
+
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Creates the fastest kernel of the runtime: the vector kernel when the vector module
+     * is available and the vectors hold more than one position, the scalar kernel otherwise.
+     *
+     * @param boardSize board size of the positions
+     * @return kernel
+     */
+    public static BatchKernel create(int boardSize) {
+
+        if (VECTOR_MODULE) {
+
+            try {
+
+                if (VectorBatchKernel.lanes() > 1) {
+                    return new VectorBatchKernel(boardSize);
+                }
+            } catch (LinkageError e) {
+
+                //The vector API of the runtime doesn't match, so the scalar kernel is used.
+            }
+        }
+
+        return scalar(boardSize);
+    }
+
+    /**
+     * Creates the scalar kernel.
+     *
+     * @param boardSize board size of the positions
+     * @return kernel
+     */
+    public static BatchKernel scalar(int boardSize) {
+
+        return new BatchKernel(boardSize);
+    }
+
+    /**
+     * Returns all the legal moves of every position, the same ones Game.legalMoves returns.
+     *
+     * @param black black cells masks
+     * @param white white cells masks
+     * @param moves receives the mask of the legal moves of every position
+     * @param count number of positions
+     */
+    public void legalMoves(long[] black, long[] white, long[] moves, int count) {
+
+        for (int i = 0; i < count; i++) {
+            moves[i] = Game.legalMoves(black[i], white[i], this.boardSize);
+        }
+    }
+
+    /**
+     * Performs a move of the same player in every position, in place.
+     *
+     * @param black   black cells masks
+     * @param white   white cells masks
+     * @param cells   mask of the single cell of the move of every position, 0 to leave it as it is
+     * @param isBlack is the player black
+     * @param count   number of positions
+     */
+    public void makeMoves(long[] black, long[] white, long[] cells, boolean isBlack, int count) {
+
+        for (int i = 0; i < count; i++) {
+            makeMove(black, white, i, cells[i], isBlack);
+        }
+    }
+
+    /**
+     * Performs a move in a single position, in place.
+     *
+     * @param black   black cells masks
+     * @param white   white cells masks
+     * @param index   index of the position
+     * @param cell    mask of the single cell of the move, 0 to leave the position as it is
+     * @param isBlack is the player black
+     */
+    protected final void makeMove(long[] black, long[] white, int index, long cell, boolean isBlack) {
+
+        if (cell == 0) {
+            return;
+        }
+
+        int  square  = Long.numberOfTrailingZeros(cell);
+        long changed = Game.performMovement(square, isBlack ? black[index] : white[index], this.boardSize);
+
+        if (isBlack) {
+            black[index] |= changed;
+            white[index] &= ~changed;
+        } else {
+            white[index] |= changed;
+            black[index] &= ~changed;
+        }
+    }
+
+    /**
+     * Returns the heuristic value of every position, the same one Game.heuristic returns.
+     *
+     * @param black  black cells masks
+     * @param white  white cells masks
+     * @param values receives the heuristic value of every position
+     * @param count  number of positions
+     */
+    public void evaluate(long[] black, long[] white, int[] values, int count) {
+
+        for (int i = 0; i < count; i++) {
+            values[i] = Game.heuristic(black[i], white[i], this.boardSize);
+        }
+    }
+
+    /**
+     * Returns the number of positions handled per step.
+     *
+     * @return 1 for the scalar kernel
+     */
+    public int getLanes() {
+        return 1;
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size of the positions
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+}
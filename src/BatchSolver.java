@@ -0,0 +1,334 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The class solves many boards concurrently on a pool of worker threads.
+ * Boards are read from a directory with one board per file, or from a single file
+ * with consecutive boards, optionally separated by blank lines.
+ * The winners are written one per line in the input order.
+ *
+ * A memory-mapped corpus of fixed-width records is solved in blocks instead, straight from the
+ * mapped bytes, and every block's winners are written in bulk before the next block starts,
+ * so the corpus can be far larger than the memory.
+ */
+public class BatchSolver {
+
+    //Number of records solved together before their winners are written.
+    private static final int BLOCK_RECORDS = 1 << 16;
+
+    //Most board latencies kept for the report, a corpus keeps an even sample of them.
+    private static final int MAX_LATENCIES = 1 << 20;
+
+    //Number of worker threads.
+    private final int threads;
+
+    //Search settings of every game.
+    private final SearchConfig config;
+
+    //Time taken by every board in nanoseconds, in the input order.
+    private long[] latencies = new long[0];
+
+    //Number of boards of the last batch.
+    private long boards;
+
+    //Time taken by the whole batch in nanoseconds.
+    private long elapsed;
+
+    /**
+     * Constructor.
+     *
+     * @param threads number of worker threads
+     * @param config  search settings of every game
+     */
+    public BatchSolver(int threads, SearchConfig config) {
+
+        this.threads = threads;
+        this.config = config;
+    }
+
+    /**
+     * Solves the boards.
+     *
+     * @param boards game boards
+     * @return winning color of every board, in the input order
+     */
+    public char[] solve(List<char[][]> boards) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        List<Future<Character>> futures = new ArrayList<>(boards.size());
+
+        this.latencies = new long[boards.size()];
+        this.boards = boards.size();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < boards.size(); i++) {
+
+            final int      index = i;
+            final char[][] board = boards.get(i);
+
+            futures.add(executor.submit(() -> {
+
+                long begin  = System.nanoTime();
+                char winner = Game.play(board, this.config);
+
+                this.latencies[index] = System.nanoTime() - begin;
+                return winner;
+            }));
+        }
+
+        char[] results = new char[boards.size()];
+
+        try {
+
+            for (int i = 0; i < results.length; i++) {
+                results[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error: solving a board failed.", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        this.elapsed = System.nanoTime() - start;
+
+        return results;
+    }
+
+    /**
+     * Solves every record of a corpus and writes the winners in the record order.
+     * The records of a block are split between the threads in contiguous ranges.
+     *
+     * @param corpus corpus of boards
+     * @param writer receives the winning color of every record
+     * @throws IOException when writing fails
+     */
+    public void solve(CorpusReader corpus, ResultWriter writer) throws IOException {
+
+        ExecutorService executor  = Executors.newFixedThreadPool(this.threads);
+        long            count     = corpus.getCount();
+        long            stride    = Math.max(1, (count + MAX_LATENCIES - 1) / MAX_LATENCIES);
+        char[]          winners   = new char[BLOCK_RECORDS];
+        int             boardSize = corpus.getBoardSize();
+
+        this.latencies = new long[(int) ((count + stride - 1) / stride)];
+        this.boards = count;
+        long start = System.nanoTime();
+
+        try {
+
+            for (long first = 0; first < count; first += BLOCK_RECORDS) {
+
+                long            blockFirst = first;
+                int             size       = (int) Math.min(BLOCK_RECORDS, count - first);
+                int             range      = (size + this.threads - 1) / this.threads;
+                List<Future<?>> futures    = new ArrayList<>(this.threads);
+
+                for (int from = 0; from < size; from += range) {
+
+                    int rangeFrom = from;
+                    int rangeTo   = Math.min(size, from + range);
+
+                    futures.add(executor.submit(() -> {
+
+                        long[] masks = new long[2];
+
+                        for (int i = rangeFrom; i < rangeTo; i++) {
+
+                            long record = blockFirst + i;
+                            long begin  = System.nanoTime();
+
+                            corpus.read(record, masks);
+                            winners[i] = Game.play(masks[0], masks[1], boardSize, this.config);
+
+                            if (record % stride == 0) {
+                                this.latencies[(int) (record / stride)] = System.nanoTime() - begin;
+                            }
+                        }
+                    }));
+                }
+
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                writer.write(winners, 0, size);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error: solving a board failed.", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        this.elapsed = System.nanoTime() - start;
+    }
+
+    /**
+     * Returns the throughput and latency summary of the last batch.
+     *
+     * @return report line
+     */
+    public String report() {
+
+        if (this.latencies.length == 0) {
+            return "No boards solved.";
+        }
+
+        long[] sorted = this.latencies.clone();
+        Arrays.sort(sorted);
+
+        double seconds = this.elapsed / 1e9;
+
+        return String.format("%d boards in %.3f s (%.1f boards/s), latency ms: p50 %.3f, p99 %.3f, p99.9 %.3f, max %.3f",
+                this.boards, seconds, this.boards / seconds,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     *
+     * @param sorted   sorted latencies in nanoseconds
+     * @param fraction percentile as a fraction
+     * @return latency in milliseconds
+     */
+    private static double percentile(long[] sorted, double fraction) {
+
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Reads the boards of a directory or a multi-board file.
+     * The size of every board is the length of its first row.
+     *
+     * @param path directory with one board per file, or a file with consecutive boards
+     * @return game boards, in file name order for a directory
+     * @throws IOException when reading fails
+     */
+    public static List<char[][]> readBoards(Path path) throws IOException {
+
+        return readBoards(path, 0);
+    }
+
+    /**
+     * Reads the boards of a directory or a multi-board file.
+     *
+     * @param path      directory with one board per file, or a file with consecutive boards
+     * @param boardSize board size, or 0 to take the length of the first row of every board
+     * @return game boards, in file name order for a directory
+     * @throws IOException when reading fails
+     */
+    public static List<char[][]> readBoards(Path path, int boardSize) throws IOException {
+
+        List<char[][]> boards = new ArrayList<>();
+
+        if (Files.isDirectory(path)) {
+
+            List<Path> files;
+
+            try (Stream<Path> listing = Files.list(path)) {
+                files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            for (Path file : files) {
+                boards.addAll(readBoardFile(file, boardSize));
+            }
+        } else {
+
+            boards.addAll(readBoardFile(path, boardSize));
+        }
+
+        return boards;
+    }
+
+    /**
+     * Reads the consecutive boards of a file, skipping blank lines.
+     *
+     * @param file      input file
+     * @param boardSize board size, or 0 to take the length of the first row of every board
+     * @return game boards
+     * @throws IOException when reading fails or a board is incomplete
+     */
+    private static List<char[][]> readBoardFile(Path file, int boardSize) throws IOException {
+
+        List<char[][]> boards = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+
+            char[][] board = null;
+            int      size  = boardSize;
+            int      row   = 0;
+            String   line;
+
+            while ((line = reader.readLine()) != null) {
+
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                if (board == null) {
+
+                    size = boardSize > 0 ? boardSize : line.trim().length();
+                    board = new char[size][];
+                    row = 0;
+                }
+
+                if (line.length() < size) {
+                    throw new IOException("Short board row in " + file + ": " + line);
+                }
+
+                board[row++] = line.substring(0, size).toCharArray();
+
+                //The board is complete.
+                if (row == size) {
+                    boards.add(board);
+                    board = null;
+                }
+            }
+
+            if (board != null) {
+                throw new IOException("Incomplete board at the end of " + file);
+            }
+        }
+
+        return boards;
+    }
+
+    /**
+     * Writes the winners one per line.
+     *
+     * @param path    output file
+     * @param results winning colors
+     * @throws IOException when writing fails
+     */
+    public static void writeResults(Path path, char[] results) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+
+            for (char result : results) {
+                writer.write(result);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * The class contains the bitboard representation of game boards.
+ * A board is stored as two masks, one per color, where the cell at (row, column)
+ * is the bit number row * boardSize + column. Boards of up to 8x8 cells are supported.
+ */
+public final class Bitboard {
+
+    //Largest board size that fits into a single mask.
+    public static final int MAX_BOARD_SIZE = 8;
+
+    //Direction indexes, in the same order the game fills them.
+    public static final int RIGHT        = 0;
+    public static final int BOTTOM_RIGHT = 1;
+    public static final int BOTTOM       = 2;
+    public static final int BOTTOM_LEFT  = 3;
+    public static final int LEFT         = 4;
+    public static final int TOP_LEFT     = 5;
+    public static final int TOP          = 6;
+    public static final int TOP_RIGHT    = 7;
+
+    //Number of directions.
+    public static final int DIRECTIONS = 8;
+
+    //Mask of all the board cells, per board size.
+    private static final long[] FULL = new long[MAX_BOARD_SIZE + 1];
+
+    //Mask of all the cells except the first column, per board size.
+    private static final long[] NOT_FIRST_COLUMN = new long[MAX_BOARD_SIZE + 1];
+
+    //Mask of all the cells except the last column, per board size.
+    private static final long[] NOT_LAST_COLUMN = new long[MAX_BOARD_SIZE + 1];
+
+    //Mask of the edge cells, per board size.
+    private static final long[] EDGE = new long[MAX_BOARD_SIZE + 1];
+
+    //Rays going out of every cell in every direction, per board size.
+    private static final long[][][] RAYS = new long[MAX_BOARD_SIZE + 1][][];
+
+    static {
+        for (int size = 1; size <= MAX_BOARD_SIZE; size++) {
+
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+
+                    long cell = 1L << (row * size + column);
+
+                    FULL[size] |= cell;
+
+                    if (column > 0) {
+                        NOT_FIRST_COLUMN[size] |= cell;
+                    }
+
+                    if (column < size - 1) {
+                        NOT_LAST_COLUMN[size] |= cell;
+                    }
+
+                    if (row == 0 || row == size - 1 || column == 0 || column == size - 1) {
+                        EDGE[size] |= cell;
+                    }
+                }
+            }
+
+            //Build the rays by walking from every cell until leaving the board.
+            RAYS[size] = new long[size * size][DIRECTIONS];
+
+            for (int square = 0; square < size * size; square++) {
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+
+                    long ray  = 0;
+                    long cell = shift(1L << square, direction, size);
+
+                    while (cell != 0) {
+                        ray |= cell;
+                        cell = shift(cell, direction, size);
+                    }
+
+                    RAYS[size][square][direction] = ray;
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Bitboard() {
+
+    }
+
+    /**
+     * Returns the mask of all the board cells.
+     * @param boardSize board size
+     * @return full mask
+     */
+    public static long full(int boardSize) {
+        return FULL[boardSize];
+    }
+
+    /**
+     * Returns the mask of the edge cells.
+     * @param boardSize board size
+     * @return edge mask
+     */
+    public static long edge(int boardSize) {
+        return EDGE[boardSize];
+    }
+
+    /**
+     * Returns the mask of all the cells except the first column.
+     * @param boardSize board size
+     * @return mask
+     */
+    public static long notFirstColumn(int boardSize) {
+        return NOT_FIRST_COLUMN[boardSize];
+    }
+
+    /**
+     * Returns the mask of all the cells except the last column.
+     * @param boardSize board size
+     * @return mask
+     */
+    public static long notLastColumn(int boardSize) {
+        return NOT_LAST_COLUMN[boardSize];
+    }
+
+    /**
+     * Returns the cells lying in the given direction from a cell, nearest first.
+     * @param square cell index
+     * @param direction direction index
+     * @param boardSize board size
+     * @return ray mask
+     */
+    public static long ray(int square, int direction, int boardSize) {
+        return RAYS[boardSize][square][direction];
+    }
+
+    /**
+     * Moves all the cells of a mask one step in the given direction.
+     * Cells that leave the board are dropped.
+     * @param mask cells mask
+     * @param direction direction index
+     * @param boardSize board size
+     * @return shifted mask
+     */
+    public static long shift(long mask, int direction, int boardSize) {
+
+        switch (direction) {
+            case RIGHT:
+                return (mask << 1) & NOT_FIRST_COLUMN[boardSize];
+            case BOTTOM_RIGHT:
+                return (mask << (boardSize + 1)) & NOT_FIRST_COLUMN[boardSize];
+            case BOTTOM:
+                return (mask << boardSize) & FULL[boardSize];
+            case BOTTOM_LEFT:
+                return (mask << (boardSize - 1)) & NOT_LAST_COLUMN[boardSize];
+            case LEFT:
+                return (mask >>> 1) & NOT_LAST_COLUMN[boardSize];
+            case TOP_LEFT:
+                return (mask >>> (boardSize + 1)) & NOT_LAST_COLUMN[boardSize];
+            case TOP:
+                return mask >>> boardSize;
+            case TOP_RIGHT:
+                return (mask >>> (boardSize - 1)) & NOT_FIRST_COLUMN[boardSize];
+            default:
+                throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+    }
+
+    /**
+     * Returns all the cells that touch at least one cell of the mask.
+     * @param mask cells mask
+     * @param boardSize board size
+     * @return neighbours mask
+     */
+    public static long neighbours(long mask, int boardSize) {
+
+        long horizontal = ((mask << 1) & NOT_FIRST_COLUMN[boardSize]) | ((mask >>> 1) & NOT_LAST_COLUMN[boardSize]);
+        long row        = mask | horizontal;
+
+        //Every cell of the extended row spreads to the rows above and below it.
+        return (horizontal | (row << boardSize) | (row >>> boardSize)) & FULL[boardSize];
+    }
+
+    /**
+     * Converts a character board into a mask of the given color.
+     * @param board game board
+     * @param boardSize board size
+     * @param color color to collect
+     * @return color mask
+     */
+    public static long fromBoard(char[][] board, int boardSize, char color) {
+
+        if (boardSize < 1 || boardSize > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size: " + boardSize);
+        }
+
+        long mask = 0;
+
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+
+                if (board[i][j] == color) {
+                    mask |= 1L << (i * boardSize + j);
+                }
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Converts color masks back into a character board.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @param boardSize board size
+     * @return game board
+     */
+    public static char[][] toBoard(long black, long white, int boardSize) {
+
+        char[][] board = new char[boardSize][boardSize];
+
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+
+                long cell = 1L << (i * boardSize + j);
+
+                if ((black & cell) != 0) {
+                    board[i][j] = 'B';
+                } else if ((white & cell) != 0) {
+                    board[i][j] = 'W';
+                } else {
+                    board[i][j] = 'E';
+                }
+            }
+        }
+
+        return board;
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * The class is a mutable game board for the search.
+ * Moves are made in place and every move records the cells it changed on an undo stack,
+ * so a whole search runs on a single board without allocating.
+ * A board can be reset to another position, so a search arena reuses it across searches.
+ */
+public class Board {
+
+    //Maximum number of moves on the undo stack, a move fills at least one cell.
+    private static final int MAX_MOVES = Long.SIZE;
+
+    //Board size.
+    private int boardSize;
+
+    //Black cells mask.
+    private long black;
+
+    //White cells mask.
+    private long white;
+
+    //Zobrist hash of the cells.
+    private long hash;
+
+    //Empty cells next to an occupied cell, which are the legal moves.
+    private long frontier;
+
+    //Hashes of the symmetric variants of the cells, null when they aren't kept.
+    private long[] symmetricHashes;
+
+    //Storage of the symmetric hashes, allocated once and kept between resets.
+    private long[] symmetricBuffer;
+
+    //Cells that received the player's color, per made move.
+    private final long[] changedStack = new long[MAX_MOVES];
+
+    //Opponent cells the move took over, per made move.
+    private final long[] flippedStack = new long[MAX_MOVES];
+
+    //Hash before the move, per made move.
+    private final long[] hashStack = new long[MAX_MOVES];
+
+    //Frontier before the move, per made move.
+    private final long[] frontierStack = new long[MAX_MOVES];
+
+    //Was the player black, per made move.
+    private final boolean[] blackStack = new boolean[MAX_MOVES];
+
+    //Number of made moves.
+    private int top;
+
+    /**
+     * Constructor.
+     *
+     * @param node node to copy the cells from
+     */
+    public Board(Node node) {
+
+        this(node, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param node      node to copy the cells from
+     * @param symmetric keep the hashes of the symmetric variants
+     */
+    public Board(Node node, boolean symmetric) {
+
+        reset(node, symmetric);
+    }
+
+    /**
+     * Copy constructor, the undo stack is not copied.
+     *
+     * @param other board to copy
+     */
+    public Board(Board other) {
+
+        copy(other);
+    }
+
+    /**
+     * Creates an empty board of no size, to be reset before it is used.
+     */
+    Board() {
+
+    }
+
+    /**
+     * Replaces the cells with the cells of a node and empties the undo stack.
+     *
+     * @param node      node to copy the cells from
+     * @param symmetric keep the hashes of the symmetric variants
+     */
+    public void reset(Node node, boolean symmetric) {
+
+        this.boardSize = node.getBoardSize();
+        this.black = node.getBlack();
+        this.white = node.getWhite();
+        this.hash = node.getHash();
+        this.frontier = node.getFrontier();
+        this.symmetricHashes = null;
+        this.top = 0;
+
+        if (symmetric) {
+
+            this.symmetricHashes = symmetricBuffer();
+            Zobrist.symmetricHashes(this.black, this.white, this.boardSize, this.symmetricHashes);
+        }
+    }
+
+    /**
+     * Replaces the cells with the cells of another board and empties the undo stack.
+     *
+     * @param other board to copy
+     */
+    public void copy(Board other) {
+
+        this.boardSize = other.boardSize;
+        this.black = other.black;
+        this.white = other.white;
+        this.hash = other.hash;
+        this.frontier = other.frontier;
+        this.symmetricHashes = null;
+        this.top = 0;
+
+        if (other.symmetricHashes != null) {
+
+            this.symmetricHashes = symmetricBuffer();
+            System.arraycopy(other.symmetricHashes, 0, this.symmetricHashes, 0, Symmetry.COUNT);
+        }
+    }
+
+    /**
+     * Returns the array of the symmetric hashes, allocating it the first time.
+     *
+     * @return array of a hash per symmetry
+     */
+    private long[] symmetricBuffer() {
+
+        if (this.symmetricBuffer == null) {
+            this.symmetricBuffer = new long[Symmetry.COUNT];
+        }
+
+        return this.symmetricBuffer;
+    }
+
+    /**
+     * Performs a move in place.
+     *
+     * @param square  cell index of the move
+     * @param isBlack is the player black
+     */
+    public void makeMove(int square, boolean isBlack) {
+
+        long own      = isBlack ? this.black : this.white;
+        long opponent = isBlack ? this.white : this.black;
+        long changed  = Game.performMovement(square, own, this.boardSize);
+        long flipped  = changed & opponent;
+
+        this.changedStack[this.top] = changed;
+        this.flippedStack[this.top] = flipped;
+        this.hashStack[this.top] = this.hash;
+        this.frontierStack[this.top] = this.frontier;
+        this.blackStack[this.top] = isBlack;
+        this.top++;
+
+        this.hash ^= Zobrist.delta(changed, opponent, isBlack);
+
+        if (this.symmetricHashes != null) {
+            Zobrist.symmetricDelta(this.symmetricHashes, changed, flipped, isBlack, this.boardSize);
+        }
+
+        if (isBlack) {
+            this.black |= changed;
+            this.white &= ~changed;
+        } else {
+            this.white |= changed;
+            this.black &= ~changed;
+        }
+
+        this.frontier = Game.updateFrontier(this.frontier, changed, this.black | this.white, this.boardSize);
+    }
+
+    /**
+     * Takes back the last made move.
+     */
+    public void undoMove() {
+
+        this.top--;
+
+        long changed = this.changedStack[this.top];
+        long flipped = this.flippedStack[this.top];
+
+        this.hash = this.hashStack[this.top];
+        this.frontier = this.frontierStack[this.top];
+
+        if (this.symmetricHashes != null) {
+            Zobrist.symmetricDelta(this.symmetricHashes, changed, flipped, this.blackStack[this.top], this.boardSize);
+        }
+
+        if (this.blackStack[this.top]) {
+            this.black &= ~changed;
+            this.white |= flipped;
+        } else {
+            this.white &= ~changed;
+            this.black |= flipped;
+        }
+    }
+
+    /**
+     * Returns all the legal moves.
+     *
+     * @return mask of the legal moves
+     */
+    public long legalMoves() {
+        return frontier;
+    }
+
+    /**
+     * Checks if the board is full.
+     *
+     * @return is terminal
+     */
+    public boolean isTerminal() {
+        return (this.black | this.white) == Bitboard.full(this.boardSize);
+    }
+
+    /**
+     * Black cells mask getter.
+     *
+     * @return mask
+     */
+    public long getBlack() {
+        return black;
+    }
+
+    /**
+     * White cells mask getter.
+     *
+     * @return mask
+     */
+    public long getWhite() {
+        return white;
+    }
+
+    /**
+     * Hash getter.
+     *
+     * @return Zobrist hash of the cells
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the symmetry that takes the cells to their representative, the variant with the smallest hash.
+     *
+     * @return symmetry index, the identity when the symmetric hashes aren't kept
+     */
+    public int canonicalSymmetry() {
+
+        if (this.symmetricHashes == null) {
+            return Symmetry.IDENTITY;
+        }
+
+        int best = Symmetry.IDENTITY;
+
+        for (int symmetry = 1; symmetry < Symmetry.COUNT; symmetry++) {
+
+            if (this.symmetricHashes[symmetry] < this.symmetricHashes[best]) {
+                best = symmetry;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the hash of a symmetric variant of the cells.
+     *
+     * @param symmetry symmetry index
+     * @return Zobrist hash of the variant
+     */
+    public long getHash(int symmetry) {
+        return this.symmetricHashes == null ? this.hash : this.symmetricHashes[symmetry];
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class reads a corpus of boards stored as fixed-width records.
+ * A record is a board in the input file format: a line of B, W and empty cells per row,
+ * every line ending with \n or \r\n the same way, optionally followed by a blank line.
+ * The layout is taken from the first record, and every other record must have it too.
+ *
+ * The file is memory-mapped in windows of whole records, so corpora far larger than a single
+ * mapping are read in place. The cells are parsed from the mapped bytes straight into the
+ * black and white masks, without strings or char arrays, and any number of threads can read
+ * the records at the same time.
+ */
+public class CorpusReader implements Closeable {
+
+    //Largest mapping of a window, in bytes.
+    private static final long MAX_WINDOW_BYTES = Integer.MAX_VALUE;
+
+    //Open file.
+    private final FileChannel channel;
+
+    //Board size of the records.
+    private final int boardSize;
+
+    //Bytes of a row, its line ending included.
+    private final int rowWidth;
+
+    //Bytes of a record, its blank line included.
+    private final int recordWidth;
+
+    //Number of records.
+    private final long count;
+
+    //Records per window.
+    private final long windowRecords;
+
+    //Mapped windows, in file order.
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * Constructor.
+     *
+     * @param channel     open file
+     * @param boardSize   board size of the records
+     * @param rowWidth    bytes of a row
+     * @param recordWidth bytes of a record
+     * @throws IOException if the file can't be mapped
+     */
+    private CorpusReader(FileChannel channel, int boardSize, int rowWidth, int recordWidth) throws IOException {
+
+        this.channel = channel;
+        this.boardSize = boardSize;
+        this.rowWidth = rowWidth;
+        this.recordWidth = recordWidth;
+
+        //The last record may miss its blank line and its last line ending.
+        long size       = channel.size();
+        long recordData = (long) (boardSize - 1) * rowWidth + boardSize;
+
+        this.count = size < recordData ? 0 : (size - recordData) / recordWidth + 1;
+        this.windowRecords = MAX_WINDOW_BYTES / recordWidth;
+
+        int windowCount = (int) ((this.count + this.windowRecords - 1) / this.windowRecords);
+
+        this.windows = new MappedByteBuffer[windowCount];
+
+        for (int i = 0; i < windowCount; i++) {
+
+            long start  = i * this.windowRecords * recordWidth;
+            long length = Math.min(this.windowRecords * recordWidth, size - start);
+
+            this.windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+    }
+
+    /**
+     * Memory-maps a corpus file and detects its layout.
+     *
+     * @param path corpus file
+     * @return reader
+     * @throws IOException if the file can't be read or its first record isn't a board
+     */
+    public static CorpusReader open(Path path) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+
+            //The first row tells the board size and the line ending.
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), 2L * (Bitboard.MAX_BOARD_SIZE + 2) * (Bitboard.MAX_BOARD_SIZE + 1)));
+
+            int boardSize = 0;
+
+            while (boardSize < head.limit() && head.get(boardSize) != '\n' && head.get(boardSize) != '\r') {
+                boardSize++;
+            }
+
+            if (boardSize == 0 || boardSize > Bitboard.MAX_BOARD_SIZE || boardSize == head.limit()) {
+                throw new IOException("Not a corpus of boards of up to " + Bitboard.MAX_BOARD_SIZE + " cells per row: "
+                        + path);
+            }
+
+            int ending      = head.get(boardSize) == '\r' ? 2 : 1;
+            int rowWidth    = boardSize + ending;
+            int recordWidth = boardSize * rowWidth;
+
+            //A blank line after the first board separates the records.
+            if (recordWidth + ending <= head.limit() && (head.get(recordWidth) == '\n' || head.get(recordWidth) == '\r')) {
+                recordWidth += ending;
+            }
+
+            return new CorpusReader(channel, boardSize, rowWidth, recordWidth);
+
+        } catch (IOException | RuntimeException e) {
+
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the cells of a record.
+     *
+     * @param record record index
+     * @param masks  receives the black cells mask at 0 and the white cells mask at 1
+     */
+    public void read(long record, long[] masks) {
+
+        MappedByteBuffer window = this.windows[(int) (record / this.windowRecords)];
+        int              offset = (int) (record % this.windowRecords) * this.recordWidth;
+        long             black  = 0;
+        long             white  = 0;
+
+        for (int row = 0; row < this.boardSize; row++) {
+
+            int  start  = offset + row * this.rowWidth;
+            long square = 1L << (row * this.boardSize);
+
+            for (int column = 0; column < this.boardSize; column++, square <<= 1) {
+
+                byte cell = window.get(start + column);
+
+                if (cell == 'B') {
+                    black |= square;
+                } else if (cell == 'W') {
+                    white |= square;
+                }
+            }
+        }
+
+        masks[0] = black;
+        masks[1] = white;
+    }
+
+    /**
+     * Reads a record as a packed position.
+     *
+     * @param record record index
+     * @param masks  buffer of two masks
+     * @return packed position, see Position
+     */
+    public long readPacked(long record, long[] masks) {
+
+        if (!Position.isPackable(this.boardSize)) {
+            throw new IllegalStateException("Boards of " + this.boardSize + " cells per row can't be packed");
+        }
+
+        read(record, masks);
+
+        return Position.pack(masks[0], masks[1]);
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size of the records
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Count getter.
+     *
+     * @return number of records
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Closes the file, the mapped windows stay valid until they are garbage collected.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.Arrays;
+
+/**
+ * The class solves positions with few empty cells exactly, by searching every line to the end of the game.
+ * The score is the final difference of black and white cells, doubled, so a draw can be worth one point
+ * to the player it goes to: a full board with equal colors is won by the player who didn't make the last move.
+ *
+ * The moves are ordered by parity first, moves into a quarter of the board with an odd number of empty
+ * cells before the rest, and then fastest first, the moves that leave the fewest legal moves before the rest.
+ */
+public class EndgameSolver {
+
+    //Maximum number of plies, a move fills at least one cell.
+    private static final int MAX_PLY = Long.SIZE + 1;
+
+    //Below this number of empty cells the moves are only ordered by parity, which needs no moves to be made.
+    private static final int FASTEST_FIRST_EMPTIES = 6;
+
+    //Quarters of the board, per board size.
+    private static final long[][] QUARTERS = new long[Bitboard.MAX_BOARD_SIZE + 1][4];
+
+    static {
+        for (int size = 1; size <= Bitboard.MAX_BOARD_SIZE; size++) {
+
+            int half = (size + 1) / 2;
+
+            for (int square = 0; square < size * size; square++) {
+
+                int quarter = (square / size < half ? 0 : 2) + (square % size < half ? 0 : 1);
+
+                QUARTERS[size][quarter] |= 1L << square;
+            }
+        }
+    }
+
+    //Board the solver works on.
+    private Board board;
+
+    //Board size.
+    private int boardSize;
+
+    //Principal variation of every ply, row ply holds the moves from that ply on.
+    private final int[] pv = new int[MAX_PLY * MAX_PLY];
+
+    //Principal variation length of every ply.
+    private final int[] pvLength = new int[MAX_PLY];
+
+    //Ordered moves of every ply.
+    private final int[] orderedMoves = new int[MAX_PLY * Long.SIZE];
+
+    //Ordering keys of the ordered moves of every ply.
+    private final int[] orderKeys = new int[MAX_PLY * Long.SIZE];
+
+    //Nodes visited by the last search.
+    private long nodes;
+
+    /**
+     * Solves a position.
+     *
+     * @param board            board to solve, left as it was
+     * @param maximizingPlayer is black to move
+     * @return doubled final difference of black and white cells under perfect play
+     */
+    public int solve(Board board, boolean maximizingPlayer) {
+
+        this.board = board;
+        this.boardSize = board.getBoardSize();
+        this.nodes = 0;
+
+        int cells = this.boardSize * this.boardSize;
+
+        return alphaBeta(0, -2 * cells - 1, 2 * cells + 1, maximizingPlayer);
+    }
+
+    /**
+     * Returns the principal variation of the last search, to the end of the game.
+     *
+     * @return moves of the principal variation
+     */
+    public int[] principalVariation() {
+        return Arrays.copyOf(this.pv, this.pvLength[0]);
+    }
+
+    /**
+     * Nodes getter.
+     *
+     * @return nodes visited by the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Searches a position to the end of the game with alpha-beta pruning.
+     *
+     * @param ply              distance from the starting node
+     * @param alpha            value the maximizing player is already assured of
+     * @param beta             value the minimizing player is already assured of
+     * @param maximizingPlayer is black to move
+     * @return value of the node, a bound when it falls outside the window
+     */
+    private int alphaBeta(int ply, int alpha, int beta, boolean maximizingPlayer) {
+
+        this.nodes++;
+        this.pvLength[ply] = 0;
+
+        long black = this.board.getBlack();
+        long white = this.board.getWhite();
+        long empty = ~(black | white) & Bitboard.full(this.boardSize);
+
+        //The game is over.
+        if (empty == 0) {
+
+            int difference = 2 * (Long.bitCount(black) - Long.bitCount(white));
+
+            if (difference == 0) {
+                return maximizingPlayer ? 1 : -1;
+            }
+
+            return difference;
+        }
+
+        int count     = orderMoves(ply, empty, maximizingPlayer);
+        int bestValue = maximizingPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int offset    = ply * Long.SIZE;
+
+        for (int i = 0; i < count; i++) {
+
+            int move = this.orderedMoves[offset + i];
+
+            this.board.makeMove(move, maximizingPlayer);
+            int value = alphaBeta(ply + 1, alpha, beta, !maximizingPlayer);
+            this.board.undoMove();
+
+            if (maximizingPlayer ? value > bestValue : value < bestValue) {
+
+                bestValue = value;
+                updatePrincipalVariation(ply, move);
+            }
+
+            if (maximizingPlayer) {
+                alpha = Math.max(alpha, bestValue);
+            } else {
+                beta = Math.min(beta, bestValue);
+            }
+
+            //The other player will avoid this node.
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        return bestValue;
+    }
+
+    /**
+     * Orders the legal moves of a ply, parity first and then fastest first.
+     *
+     * @param ply              distance from the starting node
+     * @param empty            empty cells mask
+     * @param maximizingPlayer is black to move
+     * @return number of moves
+     */
+    private int orderMoves(int ply, long empty, boolean maximizingPlayer) {
+
+        long[] quarters = QUARTERS[this.boardSize];
+        long   odd      = 0;
+
+        for (long quarter : quarters) {
+
+            if ((Long.bitCount(empty & quarter) & 1) != 0) {
+                odd |= quarter;
+            }
+        }
+
+        boolean fastestFirst = Long.bitCount(empty) >= FASTEST_FIRST_EMPTIES;
+        int     offset       = ply * Long.SIZE;
+        int     count        = 0;
+
+        for (long moves = this.board.legalMoves(); moves != 0; moves &= moves - 1) {
+
+            int square = Long.numberOfTrailingZeros(moves);
+            int key    = (odd & (1L << square)) != 0 ? 0 : Long.SIZE;
+
+            if (fastestFirst) {
+
+                //The legal moves are the same for both players, so they are the opponent's moves too.
+                this.board.makeMove(square, maximizingPlayer);
+                key += Long.bitCount(this.board.legalMoves());
+                this.board.undoMove();
+            }
+
+            //Insert the move after the moves with a smaller or equal key.
+            int i = count++;
+
+            while (i > 0 && this.orderKeys[offset + i - 1] > key) {
+
+                this.orderedMoves[offset + i] = this.orderedMoves[offset + i - 1];
+                this.orderKeys[offset + i] = this.orderKeys[offset + i - 1];
+                i--;
+            }
+
+            this.orderedMoves[offset + i] = square;
+            this.orderKeys[offset + i] = key;
+        }
+
+        return count;
+    }
+
+    /**
+     * Makes the move followed by the principal variation of the next ply the principal variation of a ply.
+     *
+     * @param ply  distance from the starting node
+     * @param move cell index of the move
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+
+        int row    = ply * MAX_PLY;
+        int length = this.pvLength[ply + 1];
+
+        this.pv[row] = move;
+        System.arraycopy(this.pv, row + MAX_PLY, this.pv, row + 1, length);
+        this.pvLength[ply] = length + 1;
+    }
+}
@@ -1,4 +1,4 @@
-import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The class performs the game's logic.
@@ -7,10 +7,10 @@ import java.util.ArrayList;
 public class Game {
 
     //Max searching depth in the Minimax algorithm.
-    private static final int MAX_DEPTH  = 3;
+    static final int MAX_DEPTH  = 3;
 
-    //Board size.
-    private static final int BOARD_SIZE = 5;
+    //Table of solved positions, null when there is none.
+    private static volatile ResultTable results;
 
     /**
      * Private constructor.
@@ -26,22 +26,224 @@ public class Game {
      */
     public static char play(char[][] board) {
 
-        Node    node         = new Node(board, BOARD_SIZE, 'B');
-        boolean isMaximizing = true;
+        return play(board, new SearchConfig());
+    }
+
+    /**
+     * Plays the game with the given search algorithm and finds the winning player.
+     * All the algorithms but MCTS choose the same moves at the same depth.
+     * @param board game board
+     * @param algorithm search algorithm
+     * @param depth maximum search depth
+     * @return winning color
+     */
+    public static char play(char[][] board, SearchAlgorithm algorithm, int depth) {
+
+        SearchConfig config = new SearchConfig();
+        config.setAlgorithm(algorithm);
+        config.setDepth(depth);
+
+        return play(board, config);
+    }
+
+    /**
+     * Plays the game with the given search settings and finds the winning player.
+     * @param board game board
+     * @param config search settings
+     * @return winning color
+     */
+    public static char play(char[][] board, SearchConfig config) {
+
+        int boardSize = board.length;
+
+        //Boards that don't fit into a bitboard are played on a mailbox.
+        if (boardSize > Bitboard.MAX_BOARD_SIZE) {
+            return playMailbox(board, config);
+        }
+
+        return play(Bitboard.fromBoard(board, boardSize, 'B'), Bitboard.fromBoard(board, boardSize, 'W'), boardSize,
+                config);
+    }
+
+    /**
+     * Plays the game from a packed position with the given search settings and finds the winning player.
+     * @param position packed position, see Position
+     * @param boardSize board size, at most Position.MAX_PACKED_BOARD_SIZE
+     * @param config search settings
+     * @return winning color
+     */
+    public static char play(long position, int boardSize, SearchConfig config) {
+
+        return play(Position.black(position), Position.white(position), boardSize, config);
+    }
+
+    /**
+     * Plays the game from the given cells with the given search settings and finds the winning player.
+     * MINIMAX plays with Game.minimax, so its moves report no statistics and no Flight Recorder events,
+     * and it only values positions with the game's heuristic, so a pattern evaluator is rejected.
+     * The ponder setting is ignored: one search plays both players and jumps to the end of every
+     * chosen line, so there is no opponent's thinking time to search in. Arena plays with pondering.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @param boardSize board size, at most Bitboard.MAX_BOARD_SIZE
+     * @param config search settings
+     * @return winning color
+     * @throws IllegalArgumentException if a pattern evaluator is set with MINIMAX
+     */
+    public static char play(long black, long white, int boardSize, SearchConfig config) {
+
+        if (config.getAlgorithm() == SearchAlgorithm.MINIMAX && config.getEvaluator() != null) {
+            throw new IllegalArgumentException("MINIMAX values positions with the game's heuristic only");
+        }
+
+        Node         node         = new Node(black, white, boardSize, 'B');
+        boolean      isMaximizing = true;
+        Search       search       = null;
+        ForkJoinPool pool         = null;
+
+        //The transposition table is kept between the moves of the game.
+        if (config.getAlgorithm() != SearchAlgorithm.MINIMAX) {
+
+            TranspositionTable table = null;
+
+            if (config.getTableBytes() > 0) {
+                table = new TranspositionTable(config.getTableBytes());
+            }
+
+            if (config.getThreads() > 1) {
+                pool = new ForkJoinPool(config.getThreads());
+            }
+
+            search = new Search(config, table, pool);
+        }
+
+        ResultTable solved = results;
+
+        //The solved positions only hold for the settings they were solved with.
+        if (solved != null && !solved.accepts(boardSize, config)) {
+            solved = null;
+        }
+
+        try {
+
+            //Run until a solution is found.
+            while (!node.isTerminal()) {
+
+                //An empty board has no legal moves.
+                if (node.getFrontier() == 0) {
+                    break;
+                }
+
+                //Check if the game from here was already solved.
+                if (solved != null) {
+
+                    char winner = solved.lookup(node.getBlack(), node.getWhite(), isMaximizing);
+
+                    if (winner != 0) {
+                        return winner;
+                    }
+                }
+
+                if (search == null) {
+                    node = minimax(node, config.getDepth(), isMaximizing);
+                } else {
+                    node = search.run(node, isMaximizing);
+                }
+
+                //System.out.println("Is maximizing: " + isMaximizing);
+                //printBoard(node.getBoard());
+                //System.out.println();
+
+                //The other player moves after the last move of the chosen line.
+                isMaximizing = node.getColor() != 'B';
+            }
+        } finally {
+
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        return winner(node);
+    }
+
+    /**
+     * Plays the game on a mailbox board and finds the winning player.
+     * The moves are the same ones the bitboard search chooses at the configured depth.
+     * The settings that would choose other moves are rejected: MCTS, the budgets and the endgame solver.
+     * The ones that only make the search faster are ignored: the transposition table, the parallel search
+     * and the move ordering. So are the pattern evaluator, which is made for smaller boards, pondering,
+     * the statistics listener and the table of solved positions.
+     * @param board game board
+     * @param config search settings
+     * @return winning color
+     * @throws IllegalArgumentException if the settings need a bitboard
+     */
+    private static char playMailbox(char[][] board, SearchConfig config) {
+
+        if (config.getAlgorithm() == SearchAlgorithm.MCTS) {
+            throw new IllegalArgumentException("MCTS needs a board of at most " + Bitboard.MAX_BOARD_SIZE + " rows");
+        }
+
+        if (config.getTimeBudgetMillis() > 0 || config.getNodeBudget() > 0) {
+            throw new IllegalArgumentException("budgets need a board of at most " + Bitboard.MAX_BOARD_SIZE + " rows");
+        }
+
+        if (config.getEndgameEmpties() > 0) {
+            throw new IllegalArgumentException("the endgame solver needs a board of at most " + Bitboard.MAX_BOARD_SIZE
+                    + " rows");
+        }
+
+        Mailbox       mailbox      = new Mailbox(board);
+        MailboxSearch search       = new MailboxSearch(config.getDepth());
+        boolean       isMaximizing = true;
+        char          color        = 'B';
 
         //Run until a solution is found.
-        while (!node.isTerminal()) {
+        while (!mailbox.isTerminal()) {
+
+            int[] moves = search.run(mailbox, isMaximizing);
+
+            //An empty board has no legal moves.
+            if (moves.length == 0) {
+                break;
+            }
 
-            node = minimax(node, MAX_DEPTH, isMaximizing);
+            //Jump to the end of the chosen line.
+            for (int move : moves) {
 
-            //System.out.println("Is maximizing: " + isMaximizing);
-            //printBoard(node.getBoard());
-            //System.out.println();
+                mailbox.makeMove(move, isMaximizing);
+                color = isMaximizing ? 'B' : 'W';
+                isMaximizing = !isMaximizing;
+            }
+
+            //The other player moves after the last move of the chosen line.
+            isMaximizing = color != 'B';
+        }
 
-            isMaximizing = !isMaximizing;
+        //Check who is the winner.
+        if (color == 'B') {
+            return mailbox.getBlackCounter() > mailbox.getWhiteCounter() ? 'B' : 'W';
         }
 
-        node.countColors();
+        return mailbox.getBlackCounter() < mailbox.getWhiteCounter() ? 'W' : 'B';
+    }
+
+    /**
+     * Sets the table of solved positions the games look up.
+     * @param table table of solved positions, or null for none
+     */
+    public static void setResultTable(ResultTable table) {
+
+        results = table;
+    }
+
+    /**
+     * Finds the winning player of a finished game.
+     * @param node last node of the game
+     * @return winning color
+     */
+    static char winner(Node node) {
 
         //Check who is the winner.
         if (node.getColor() == 'B') {
@@ -81,11 +283,11 @@ public class Game {
         //Check is a maximizing player.
         if (maximizingPlayer) {
 
-            int             bestValue = Integer.MIN_VALUE;
-            Node            bestChild = null;
-            ArrayList<Node> children  = node.getSuccessors(true);
+            int  bestValue = Integer.MIN_VALUE;
+            Node bestChild = null;
 
-            for (Node child : children) {
+            //The children are created one at a time, as they are searched.
+            for (Node child : node.successors(true)) {
 
                 //Make a recursive call to Minimax with depth - 1 as a maximizing player.
                 Node v = minimax(child, depth - 1, false);
@@ -104,11 +306,11 @@ public class Game {
             return bestChild;
         } else {
 
-            int             bestValue = Integer.MAX_VALUE;
-            Node            bestChild = null;
-            ArrayList<Node> children  = node.getSuccessors(false);
+            int  bestValue = Integer.MAX_VALUE;
+            Node bestChild = null;
 
-            for (Node child : children) {
+            //The children are created one at a time, as they are searched.
+            for (Node child : node.successors(false)) {
 
                 //Make a recursive call to Minimax with depth - 1 as a minimizing player.
                 Node v = minimax(child, depth - 1, true);
@@ -133,10 +335,7 @@ public class Game {
      * @param node node
      * @return heuristic value
      */
-    private static int heuristic(Node node) {
-
-        //Count all the cells colors in advance.
-        node.countColors();
+    static int heuristic(Node node) {
 
         //Check if node is terminal
         if (node.isTerminal()) {
@@ -164,6 +363,34 @@ public class Game {
         return heuristicValue;
     }
 
+    /**
+     * Returns the heuristic value of the given cells.
+     * It is the same value the node version returns, computed without a node.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @param boardSize board size
+     * @return heuristic value
+     */
+    static int heuristic(long black, long white, int boardSize) {
+
+        int blackCounter = Long.bitCount(black);
+        int whiteCounter = Long.bitCount(white);
+
+        //Check if the board is full.
+        if ((black | white) == Bitboard.full(boardSize)) {
+
+            if (blackCounter == whiteCounter) {
+                return 0;
+            }
+
+            return blackCounter > whiteCounter ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        }
+
+        long edge = Bitboard.edge(boardSize);
+
+        return (blackCounter - whiteCounter) + (Long.bitCount(black & edge) - Long.bitCount(white & edge));
+    }
+
     /**
      * Checks if there is a draw in the game.
      * @param node node
@@ -199,377 +426,211 @@ public class Game {
     }
 
     /**
-     * Checks if the move is legal according to the game's rules.
+     * Returns all the legal moves according to the game's rules:
+     * the empty cells that touch at least one game tool.
      *
-     * @param row       movement row
-     * @param column    movement column
-     * @param board     game board
+     * @param black     black cells mask
+     * @param white     white cells mask
      * @param boardSize board size
-     * @return boolean is the move legal
+     * @return mask of the legal moves
      */
-    public static boolean isLegalMove(int row, int column, char[][] board, int boardSize) {
-
-        //Check if there isn't already a game tool at the desired position on the board.
-        if (board[row][column] != 'E') {
-
-            return false;
-        }
-
-        //Check if cell has a right neighbour.
-        if ((column < boardSize - 1) && board[row][column + 1] != 'E') {
-            return true;
-        }
+    public static long legalMoves(long black, long white, int boardSize) {
 
-        //Check if cell has a bottom-right neighbour.
-        if (row < boardSize - 1 && column < boardSize - 1 && board[row + 1][column + 1] != 'E') {
+        long occupied = black | white;
 
-            return true;
-        }
-
-        //Check if cell has a bottom neighbour.
-        if (row < boardSize - 1 && board[row + 1][column] != 'E') {
-
-            return true;
-        }
-
-        //Check if cell has a bottom-left neighbour.
-        if (row < boardSize - 1 && column > 0 && board[row + 1][column - 1] != 'E') {
-
-            return true;
-        }
-
-        //Check if cell has a left neighbour.
-        if (column > 0 && board[row][column - 1] != 'E') {
-
-            return true;
-        }
-
-        //Check if cell has a top-left neighbour.
-        if (row > 0 && column > 0 && board[row - 1][column - 1] != 'E') {
-
-            return true;
-        }
+        return Bitboard.neighbours(occupied, boardSize) & ~occupied;
+    }
 
-        //Check if cell has a top neighbour.
-        if (row > 0 && board[row - 1][column] != 'E') {
+    /**
+     * Returns the legal moves after a move, given the legal moves before it.
+     * Only the cells the move changed can have new empty neighbours, so the rest of the board isn't scanned.
+     *
+     * @param frontier  legal moves before the move
+     * @param changed   cells that received the player's color
+     * @param occupied  occupied cells after the move
+     * @param boardSize board size
+     * @return mask of the legal moves
+     */
+    public static long updateFrontier(long frontier, long changed, long occupied, int boardSize) {
 
-            return true;
-        }
+        return (frontier | Bitboard.neighbours(changed, boardSize)) & ~occupied;
+    }
 
-        //Check if cell has a top-right neighbour.
-        if (row > 0 && column < boardSize - 1 && board[row - 1][column + 1] != 'E') {
+    /**
+     * Checks if the move is legal according to the game's rules.
+     *
+     * @param row       movement row
+     * @param column    movement column
+     * @param black     black cells mask
+     * @param white     white cells mask
+     * @param boardSize board size
+     * @return boolean is the move legal
+     */
+    public static boolean isLegalMove(int row, int column, long black, long white, int boardSize) {
 
-            return true;
-        }
+        long cell = 1L << (row * boardSize + column);
 
-        return false;
+        return (legalMoves(black, white, boardSize) & cell) != 0;
     }
 
     /**
      * Fills the cells around the given cell, if possible.
      *
-     * @param row       row number
-     * @param column    column number
-     * @param value     player color
-     * @param board     game board
+     * @param square    cell index
+     * @param own       mask of the player's cells
      * @param boardSize board size
-     * @return game board after changes
+     * @return mask of the cells that receive the player's color, including the given cell
      */
-    public static char[][] performMovement(int row, int column, char value, char[][] board, int boardSize) {
+    public static long performMovement(int square, long own, int boardSize) {
 
-        char[][] workBoard = copyBoard(board, boardSize);
-        workBoard[row][column] = value;
+        long changed = 1L << square;
 
         //Try replacing the pieces in all the possible direction to the current players value.
-        workBoard = fillRight(row, column, value, workBoard, boardSize);
-        workBoard = fillBottomRight(row, column, value, workBoard, boardSize);
-        workBoard = fillBottom(row, column, value, workBoard, boardSize);
-        workBoard = fillBottomLeft(row, column, value, workBoard, boardSize);
-        workBoard = fillLeft(row, column, value, workBoard, boardSize);
-        workBoard = fillTopLeft(row, column, value, workBoard, boardSize);
-        workBoard = fillTop(row, column, value, workBoard, boardSize);
-        workBoard = fillTopRight(row, column, value, workBoard, boardSize);
-
-        return workBoard;
+        changed |= fillRight(square, own, boardSize);
+        changed |= fillBottomRight(square, own, boardSize);
+        changed |= fillBottom(square, own, boardSize);
+        changed |= fillBottomLeft(square, own, boardSize);
+        changed |= fillLeft(square, own, boardSize);
+        changed |= fillTopLeft(square, own, boardSize);
+        changed |= fillTop(square, own, boardSize);
+        changed |= fillTopRight(square, own, boardSize);
+
+        return changed;
     }
 
     /**
-     * Creates a copy of the given board.
-     * @param board game board
-     * @param boardSize board size
-     * @return copied game board
+     * Fills a ray whose cells have increasing indexes.
+     * Every cell up to the nearest player's cell is filled, if there is one.
+     * @param ray ray mask
+     * @param own mask of the player's cells
+     * @return filled cells
      */
-    private static char[][] copyBoard(char[][] board, int boardSize) {
+    private static long fillForward(long ray, long own) {
 
-        char[][] copiedArray = new char[boardSize][boardSize];
+        long stop = ray & own;
 
-        for (int i = 0; i < boardSize; i++) {
-            for (int j = 0; j < boardSize; j++) {
-
-                copiedArray[i][j] = board[i][j];
-            }
+        //No changes are made when the ray doesn't reach a player's cell.
+        if (stop == 0) {
+            return 0;
         }
 
-        return copiedArray;
+        return ray & (Long.lowestOneBit(stop) - 1);
     }
 
     /**
-     * Fills the cells in the right direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
-     * @param boardSize board size
-     * @return game board
+     * Fills a ray whose cells have decreasing indexes.
+     * Every cell down to the nearest player's cell is filled, if there is one.
+     * @param ray ray mask
+     * @param own mask of the player's cells
+     * @return filled cells
      */
-    private static char[][] fillRight(int row, int column, char value, char[][] board, int boardSize) {
+    private static long fillBackward(long ray, long own) {
 
-        //Check if not on the board boundary.
-        if (column == boardSize - 1) {
-            return board;
-        }
+        long stop = ray & own;
 
-        //Create a working board.
-        char[][] workBoard = copyBoard(board, boardSize);
+        //No changes are made when the ray doesn't reach a player's cell.
+        if (stop == 0) {
+            return 0;
+        }
 
-        //Fill the working board in the current direction.
-        for (int i = column + 1; i < boardSize; i++) {
+        long nearest = Long.highestOneBit(stop);
 
-            //If current cell is empty, fill it with player value.
-            if (workBoard[row][i] != value) {
-                workBoard[row][i] = value;
-            } else {
+        return ray & ~(nearest | (nearest - 1));
+    }
 
-                return workBoard;
-            }
-        }
+    /**
+     * Fills the cells in the right direction.
+     * @param square cell index
+     * @param own mask of the player's cells
+     * @param boardSize board size
+     * @return filled cells
+     */
+    private static long fillRight(int square, long own, int boardSize) {
 
-        //No changes were made at the current direction.
-        return board;
+        return fillForward(Bitboard.ray(square, Bitboard.RIGHT, boardSize), own);
     }
 
     /**
      * Fills the cells in the bottom-right direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillBottomRight(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (column == boardSize - 1 || row == boardSize - 1) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row + 1, j = column + 1; i < boardSize && j < boardSize; i++, j++) {
+    private static long fillBottomRight(int square, long own, int boardSize) {
 
-            if (workBoard[i][j] != value) {
-                workBoard[i][j] = value;
-            } else {
-
-                return workBoard;
-            }
-        }
-
-        return board;
+        return fillForward(Bitboard.ray(square, Bitboard.BOTTOM_RIGHT, boardSize), own);
     }
 
     /**
      * Fills the cells in the bottom direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillBottom(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (row == boardSize - 1) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row + 1; i < boardSize; i++) {
-
-            if (workBoard[i][column] != value) {
-                workBoard[i][column] = value;
-            } else {
-
-                return workBoard;
-            }
-        }
+    private static long fillBottom(int square, long own, int boardSize) {
 
-        return board;
+        return fillForward(Bitboard.ray(square, Bitboard.BOTTOM, boardSize), own);
     }
 
     /**
-     * Fills the cells in the bottom left direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * Fills the cells in the bottom-left direction.
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillBottomLeft(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (row == boardSize - 1 || column == 0) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row + 1, j = column - 1; i < boardSize && j >= 0; i++, j--) {
-
-            if (workBoard[i][j] != value) {
-                workBoard[i][j] = value;
-            } else {
+    private static long fillBottomLeft(int square, long own, int boardSize) {
 
-                return workBoard;
-            }
-        }
-
-        return board;
+        return fillForward(Bitboard.ray(square, Bitboard.BOTTOM_LEFT, boardSize), own);
     }
 
     /**
      * Fills the cells in the left direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillLeft(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (column == 0) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
+    private static long fillLeft(int square, long own, int boardSize) {
 
-        //Look for an opponent piece at the current direction.
-        for (int i = column - 1; i >= 0; i--) {
-
-            if (workBoard[row][i] != value) {
-                workBoard[row][i] = value;
-            } else {
-
-                return workBoard;
-            }
-        }
-
-        return board;
+        return fillBackward(Bitboard.ray(square, Bitboard.LEFT, boardSize), own);
     }
 
     /**
      * Fills the cells in the upper-left direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillTopLeft(int row, int column, char value, char[][] board, int boardSize) {
+    private static long fillTopLeft(int square, long own, int boardSize) {
 
-        //Check if not on the board boundary.
-        if (column == 0 || row == 0) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row - 1, j = column - 1; i >= 0 && j >= 0; i--, j--) {
-
-            if (workBoard[i][j] != value) {
-                workBoard[i][j] = value;
-            } else {
-
-                return workBoard;
-            }
-        }
-
-        return board;
+        return fillBackward(Bitboard.ray(square, Bitboard.TOP_LEFT, boardSize), own);
     }
 
     /**
      * Fills the cells in the top direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillTop(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (row == 0) {
-            return board;
-        }
+    private static long fillTop(int square, long own, int boardSize) {
 
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row - 1; i >= 0; i--) {
-
-            if (workBoard[i][column] != value) {
-                workBoard[i][column] = value;
-            } else {
-
-                //foundOpponent = true;
-                return workBoard;
-            }
-        }
-
-        return board;
+        return fillBackward(Bitboard.ray(square, Bitboard.TOP, boardSize), own);
     }
 
     /**
      * Fills the cells in the upper-right direction.
-     * @param row row
-     * @param column column
-     * @param value color
-     * @param board game board
+     * @param square cell index
+     * @param own mask of the player's cells
      * @param boardSize board size
-     * @return game board
+     * @return filled cells
      */
-    private static char[][] fillTopRight(int row, int column, char value, char[][] board, int boardSize) {
-
-        //Check if not on the board boundary.
-        if (column == boardSize - 1 || row == 0) {
-            return board;
-        }
-
-        char[][] workBoard = copyBoard(board, boardSize);
-
-        //Look for an opponent piece at the current direction.
-        for (int i = row - 1, j = column + 1; i >= 0 && j < boardSize; i--, j++) {
-
-            if (workBoard[i][j] != value) {
-                workBoard[i][j] = value;
-            } else {
-
-                return workBoard;
-            }
-        }
+    private static long fillTopRight(int square, long own, int boardSize) {
 
-        return board;
+        return fillBackward(Bitboard.ray(square, Bitboard.TOP_RIGHT, boardSize), own);
     }
 }
@@ -0,0 +1,389 @@
+import java.util.Arrays;
+
+/**
+ * The class is a mutable game board of any size, for the boards that don't fit into a bitboard.
+ * The cells are kept in a one dimensional array with a border around the board, so walking
+ * in any direction stops at the border without checking the row and column.
+ * Every cell counts its occupied neighbours, so the legal moves are kept as a set that every
+ * move updates, and the changed cells are recorded so the moves can be taken back.
+ */
+public class Mailbox {
+
+    //Cell values.
+    static final byte EMPTY  = 0;
+    static final byte BLACK  = 1;
+    static final byte WHITE  = 2;
+    static final byte BORDER = 3;
+
+    //Board size.
+    private final int boardSize;
+
+    //Distance between two rows of the array, including the border.
+    private final int stride;
+
+    //Cells, with a border around the board.
+    private final byte[] cells;
+
+    //Number of occupied neighbours of every cell.
+    private final byte[] neighbours;
+
+    //Is every cell on the edge of the board.
+    private final boolean[] edge;
+
+    //Array offset of every direction, in the same order the game fills them.
+    private final int[] offsets;
+
+    //Legal moves by cell index, row * boardSize + column.
+    private final long[] frontier;
+
+    //Counters of the colors.
+    private int blackCounter;
+    private int blackEdgeCounter;
+    private int whiteCounter;
+    private int whiteEdgeCounter;
+    private int emptyCounter;
+
+    //Array positions and previous values of the changed cells, of all the made moves.
+    private int[]  changedCells  = new int[64];
+    private byte[] changedValues = new byte[64];
+
+    //Number of recorded changes.
+    private int changes;
+
+    //Number of recorded changes before every made move.
+    private int[] moveStarts = new int[16];
+
+    //Number of made moves.
+    private int top;
+
+    /**
+     * Constructor.
+     *
+     * @param board game board
+     */
+    public Mailbox(char[][] board) {
+
+        this.boardSize = board.length;
+        this.stride = this.boardSize + 2;
+        this.cells = new byte[this.stride * this.stride];
+        this.neighbours = new byte[this.cells.length];
+        this.edge = new boolean[this.cells.length];
+        this.frontier = new long[(this.boardSize * this.boardSize + Long.SIZE - 1) / Long.SIZE];
+        this.offsets = new int[] {
+                1, this.stride + 1, this.stride, this.stride - 1, -1, -this.stride - 1, -this.stride, -this.stride + 1
+        };
+
+        Arrays.fill(this.cells, BORDER);
+
+        for (int row = 0; row < this.boardSize; row++) {
+            for (int column = 0; column < this.boardSize; column++) {
+
+                int position = position(row * this.boardSize + column);
+
+                this.cells[position] = EMPTY;
+                this.edge[position] = row == 0 || column == 0 || row == this.boardSize - 1
+                        || column == this.boardSize - 1;
+                this.emptyCounter++;
+            }
+        }
+
+        for (int row = 0; row < this.boardSize; row++) {
+            for (int column = 0; column < this.boardSize; column++) {
+
+                char value = board[row][column];
+
+                if (value == 'B' || value == 'W') {
+                    set(position(row * this.boardSize + column), value == 'B' ? BLACK : WHITE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the array position of a cell.
+     *
+     * @param square cell index
+     * @return array position
+     */
+    private int position(int square) {
+        return (square / this.boardSize + 1) * this.stride + square % this.boardSize + 1;
+    }
+
+    /**
+     * Returns the cell index of an array position.
+     *
+     * @param position array position
+     * @return cell index
+     */
+    private int square(int position) {
+        return (position / this.stride - 1) * this.boardSize + position % this.stride - 1;
+    }
+
+    /**
+     * Performs a move in place.
+     *
+     * @param square  cell index of the move
+     * @param isBlack is the player black
+     */
+    public void makeMove(int square, boolean isBlack) {
+
+        byte own      = isBlack ? BLACK : WHITE;
+        int  position = position(square);
+
+        if (this.top == this.moveStarts.length) {
+            this.moveStarts = Arrays.copyOf(this.moveStarts, 2 * this.top);
+        }
+
+        this.moveStarts[this.top++] = this.changes;
+
+        change(position, own);
+
+        //Fill every direction up to the nearest own cell, if there is one.
+        for (int offset : this.offsets) {
+
+            int end = position + offset;
+
+            while (this.cells[end] != own && this.cells[end] != BORDER) {
+                end += offset;
+            }
+
+            if (this.cells[end] == own) {
+
+                for (int cell = position + offset; cell != end; cell += offset) {
+                    change(cell, own);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes back the last made move.
+     */
+    public void undoMove() {
+
+        int start = this.moveStarts[--this.top];
+
+        while (this.changes > start) {
+
+            this.changes--;
+            set(this.changedCells[this.changes], this.changedValues[this.changes]);
+        }
+    }
+
+    /**
+     * Changes a cell and records its previous value.
+     *
+     * @param position array position
+     * @param value    new value
+     */
+    private void change(int position, byte value) {
+
+        if (this.changes == this.changedCells.length) {
+            this.changedCells = Arrays.copyOf(this.changedCells, 2 * this.changes);
+            this.changedValues = Arrays.copyOf(this.changedValues, 2 * this.changes);
+        }
+
+        this.changedCells[this.changes] = position;
+        this.changedValues[this.changes] = this.cells[position];
+        this.changes++;
+
+        set(position, value);
+    }
+
+    /**
+     * Sets a cell and updates the counters and the legal moves.
+     *
+     * @param position array position
+     * @param value    new value
+     */
+    private void set(int position, byte value) {
+
+        byte old = this.cells[position];
+
+        if (old == value) {
+            return;
+        }
+
+        count(old, position, -1);
+        count(value, position, 1);
+        this.cells[position] = value;
+
+        //A cell being filled or emptied changes the neighbours of the cells around it.
+        if (old == EMPTY || value == EMPTY) {
+
+            int step = value == EMPTY ? -1 : 1;
+
+            for (int offset : this.offsets) {
+
+                int neighbour = position + offset;
+
+                if (this.cells[neighbour] != BORDER) {
+
+                    this.neighbours[neighbour] += step;
+                    updateFrontier(neighbour);
+                }
+            }
+
+            updateFrontier(position);
+        }
+    }
+
+    /**
+     * Adds a cell to the counter of its value.
+     *
+     * @param value    cell value
+     * @param position array position
+     * @param step     1 to add, -1 to remove
+     */
+    private void count(byte value, int position, int step) {
+
+        int edgeStep = this.edge[position] ? step : 0;
+
+        if (value == BLACK) {
+            this.blackCounter += step;
+            this.blackEdgeCounter += edgeStep;
+        } else if (value == WHITE) {
+            this.whiteCounter += step;
+            this.whiteEdgeCounter += edgeStep;
+        } else {
+            this.emptyCounter += step;
+        }
+    }
+
+    /**
+     * Updates whether a cell is a legal move, an empty cell next to an occupied cell.
+     *
+     * @param position array position
+     */
+    private void updateFrontier(int position) {
+
+        int square = square(position);
+
+        if (this.cells[position] == EMPTY && this.neighbours[position] > 0) {
+            this.frontier[square >>> 6] |= 1L << square;
+        } else {
+            this.frontier[square >>> 6] &= ~(1L << square);
+        }
+    }
+
+    /**
+     * Returns the first legal move at or after a cell, in board order.
+     *
+     * @param square cell index to start from
+     * @return cell index of the move, or -1 when there is none
+     */
+    public int nextMove(int square) {
+
+        int word = square >>> 6;
+
+        if (word >= this.frontier.length) {
+            return -1;
+        }
+
+        long bits = this.frontier[word] & (-1L << square);
+
+        while (bits == 0) {
+
+            if (++word == this.frontier.length) {
+                return -1;
+            }
+
+            bits = this.frontier[word];
+        }
+
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Checks if a cell is a legal move.
+     *
+     * @param square cell index
+     * @return is legal
+     */
+    public boolean isLegalMove(int square) {
+        return (this.frontier[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Returns the heuristic value of the board, the same one Game.heuristic returns.
+     *
+     * @return heuristic value
+     */
+    public int heuristic() {
+
+        if (isTerminal()) {
+
+            if (this.blackCounter == this.whiteCounter) {
+                return 0;
+            }
+
+            return this.blackCounter > this.whiteCounter ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        }
+
+        return (this.blackCounter - this.whiteCounter) + (this.blackEdgeCounter - this.whiteEdgeCounter);
+    }
+
+    /**
+     * Checks if the board is full.
+     *
+     * @return is terminal
+     */
+    public boolean isTerminal() {
+        return this.emptyCounter == 0;
+    }
+
+    /**
+     * Returns the game board.
+     *
+     * @return game board
+     */
+    public char[][] getBoard() {
+
+        char[][] board = new char[this.boardSize][this.boardSize];
+
+        for (int square = 0; square < this.boardSize * this.boardSize; square++) {
+
+            byte value = this.cells[position(square)];
+
+            board[square / this.boardSize][square % this.boardSize] = value == BLACK ? 'B' : value == WHITE ? 'W' : 'E';
+        }
+
+        return board;
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Black cells counter getter.
+     *
+     * @return counter value
+     */
+    public int getBlackCounter() {
+        return blackCounter;
+    }
+
+    /**
+     * White cells counter getter.
+     *
+     * @return counter value
+     */
+    public int getWhiteCounter() {
+        return whiteCounter;
+    }
+
+    /**
+     * Empty cells counter getter.
+     *
+     * @return counter value
+     */
+    public int getEmptyCounter() {
+        return emptyCounter;
+    }
+}
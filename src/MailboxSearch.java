@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * The class performs the alpha-beta tree search on boards that don't fit into a bitboard.
+ * It makes the same choices as Search: a child replaces the best child when it is strictly
+ * better, or equally good and its move comes first in board order.
+ */
+public class MailboxSearch {
+
+    //Scores of won and lost positions, kept inside the initial window.
+    private static final int WIN  = Integer.MAX_VALUE - 1;
+    private static final int LOSS = Integer.MIN_VALUE + 1;
+
+    //Maximum search depth.
+    private final int depth;
+
+    //Principal variation of every ply, row ply holds the moves from that ply on.
+    private final int[] pv;
+
+    //Principal variation length of every ply.
+    private final int[] pvLength;
+
+    //Board the search works on.
+    private Mailbox board;
+
+    //Nodes visited by the last search.
+    private long nodes;
+
+    /**
+     * Constructor.
+     *
+     * @param depth maximum search depth
+     */
+    public MailboxSearch(int depth) {
+
+        this.depth = depth;
+        this.pv = new int[(depth + 1) * (depth + 1)];
+        this.pvLength = new int[depth + 1];
+    }
+
+    /**
+     * Searches for the moves of the principal variation.
+     * The board is left as it was.
+     *
+     * @param board            board to search
+     * @param maximizingPlayer is a maximizing player
+     * @return moves of the principal variation
+     */
+    public int[] run(Mailbox board, boolean maximizingPlayer) {
+
+        this.board = board;
+        this.nodes = 0;
+
+        alphaBeta(this.depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+
+        return Arrays.copyOf(this.pv, this.pvLength[0]);
+    }
+
+    /**
+     * Nodes getter.
+     *
+     * @return nodes visited by the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Performs the Minimax algorithm with alpha-beta pruning on the board.
+     *
+     * @param depth            remaining search depth
+     * @param ply              distance from the starting node
+     * @param alpha            value the maximizing player is already assured of
+     * @param beta             value the minimizing player is already assured of
+     * @param maximizingPlayer is a maximizing player
+     * @return value of the node, a bound when it falls outside the window
+     */
+    private int alphaBeta(int depth, int ply, int alpha, int beta, boolean maximizingPlayer) {
+
+        this.nodes++;
+        this.pvLength[ply] = 0;
+
+        //Check if can't search any further.
+        if (depth == 0 || this.board.isTerminal()) {
+            return evaluate(this.board);
+        }
+
+        int alphaOrig = alpha;
+        int betaOrig  = beta;
+        int bestValue = maximizingPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int bestMove  = -1;
+
+        for (int move = this.board.nextMove(0); move >= 0; move = this.board.nextMove(move + 1)) {
+
+            //The moves come in board order, so a later move must be strictly better.
+            this.board.makeMove(move, maximizingPlayer);
+            int value = alphaBeta(depth - 1, ply + 1, alpha, beta, !maximizingPlayer);
+            this.board.undoMove();
+
+            boolean better = maximizingPlayer ? value > bestValue : value < bestValue;
+
+            if (bestMove < 0 || better) {
+
+                bestValue = value;
+                bestMove = move;
+                updatePrincipalVariation(ply, move);
+            }
+
+            if (maximizingPlayer) {
+                alpha = Math.max(alpha, bestValue);
+            } else {
+                beta = Math.min(beta, bestValue);
+            }
+
+            //The other player will avoid this node.
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        return bestValue;
+    }
+
+    /**
+     * Makes the move followed by the principal variation of the next ply the principal variation of a ply.
+     *
+     * @param ply  distance from the starting node
+     * @param move cell index of the move
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+
+        int row    = ply * (this.depth + 1);
+        int length = this.pvLength[ply + 1];
+
+        this.pv[row] = move;
+        System.arraycopy(this.pv, row + this.depth + 1, this.pv, row + 1, length);
+        this.pvLength[ply] = length + 1;
+    }
+
+    /**
+     * Returns the heuristic value of a board, with wins and losses moved inside the window.
+     *
+     * @param board board
+     * @return heuristic value
+     */
+    private static int evaluate(Mailbox board) {
+
+        int value = board.heuristic();
+
+        if (value == Integer.MAX_VALUE) {
+            return WIN;
+        }
+
+        if (value == Integer.MIN_VALUE) {
+            return LOSS;
+        }
+
+        return value;
+    }
+}
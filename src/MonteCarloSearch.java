@@ -0,0 +1,629 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The class performs a Monte Carlo tree search with the UCT selection rule.
+ * Instead of the heuristic, positions are valued by the winners of random games played from them.
+ *
+ * The tree is kept in primitive arrays indexed by node, and the children of a node take a block of
+ * consecutive indexes, so the search allocates nothing per node. Several threads can grow the same
+ * tree: a thread counts its visit on the way down, before the result of its game is known, which
+ * counts as a lost game until then and steers the other threads to different lines.
+ *
+ * The tree is kept between the searches: when a search starts from the root of the last one,
+ * or from a position one or two moves below it, the subtree of that position is moved to the
+ * root and its games count for the new search.
+ */
+public class MonteCarloSearch {
+
+    //Number of random games per move when there is no budget.
+    public static final int DEFAULT_PLAYOUTS = 10000;
+
+    //Default maximum number of tree nodes.
+    public static final int DEFAULT_CAPACITY = 1 << 19;
+
+    //Exploration constant of the UCT rule.
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    //Number of visits after which a node's children are added to the tree.
+    private static final int EXPAND_VISITS = 2;
+
+    //Number of games between two time checks, minus one.
+    private static final int CHECK_INTERVAL = 63;
+
+    //Children index of a node whose children are being added by another thread.
+    private static final int EXPANDING = -1;
+
+    //Atomic access to the elements of the node arrays.
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    //Maximum distance from the root, a move fills at least one cell.
+    private static final int MAX_PLY = Long.SIZE + 1;
+
+    //Deepest position below the last root whose subtree is kept.
+    private static final int REUSE_PLIES = 2;
+
+    //Visits of every node.
+    private int[] visits;
+
+    //Games won by the player who made the node's move, for every node.
+    private int[] wins;
+
+    //Index of the first child of every node, 0 before the children are added.
+    private int[] children;
+
+    //Number of children of every node.
+    private byte[] childCount;
+
+    //Cell index of the move that created every node.
+    private byte[] moves;
+
+    //Node arrays the kept subtree is copied into, allocated when first needed.
+    private int[]  spareVisits;
+    private int[]  spareWins;
+    private int[]  spareChildren;
+    private byte[] spareChildCount;
+    private byte[] spareMoves;
+
+    //Cells of the root of the last search.
+    private long rootBlack;
+    private long rootWhite;
+
+    //Board size of the root of the last search, 0 before the first one.
+    private int rootBoardSize;
+
+    //Is black to move at the root of the last search.
+    private boolean rootBlackToMove;
+
+    //Games of the kept subtree, counted at the start of the current search.
+    private int reusedVisits;
+
+    //Number of nodes in use.
+    private final AtomicInteger size = new AtomicInteger();
+
+    //Games played by the current search.
+    private final AtomicLong playouts = new AtomicLong();
+
+    //Deepest node reached by the current search.
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    //Number of games after which the current search must stop.
+    private long playoutLimit;
+
+    //Time at which the current search must stop, in nanoseconds.
+    private long deadline;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of tree nodes
+     */
+    public MonteCarloSearch(int capacity) {
+
+        this.visits = new int[capacity];
+        this.wins = new int[capacity];
+        this.children = new int[capacity];
+        this.childCount = new byte[capacity];
+        this.moves = new byte[capacity];
+    }
+
+    /**
+     * Searches for the best move.
+     * The board is left as it was.
+     *
+     * @param board            board to search
+     * @param maximizingPlayer is black to move
+     * @param rootSymmetries   symmetries that leave the board as it is
+     * @param config           search settings, the budgets limit the search
+     * @param pool             pool running the other threads, or null for a single thread
+     * @param aborted          is the search aborted, checked before every game
+     * @return cell index of the best move, or -1 when there is no legal move
+     */
+    public int run(Board board, boolean maximizingPlayer, int rootSymmetries, SearchConfig config,
+                   ForkJoinPool pool, BooleanSupplier aborted) {
+
+        long legal = Symmetry.uniqueMoves(board.legalMoves(), rootSymmetries, board.getBoardSize());
+
+        if (board.isTerminal() || legal == 0) {
+            return -1;
+        }
+
+        startSearch(config, reroot(board, maximizingPlayer));
+
+        //A kept root may already have its children.
+        if (this.children[0] == 0) {
+            expand(0, legal);
+        }
+
+        SplittableRandom random  = new SplittableRandom(board.getHash());
+        int              threads = pool == null ? 1 : config.getThreads();
+        ForkJoinTask<?>[] tasks  = new ForkJoinTask<?>[threads - 1];
+
+        //Every thread plays on its own board with its own random numbers.
+        for (int i = 0; i < tasks.length; i++) {
+
+            Board            copy   = new Board(board);
+            SplittableRandom stream = random.split();
+
+            tasks[i] = pool.submit(() -> playGames(copy, maximizingPlayer, stream, aborted));
+        }
+
+        playGames(new Board(board), maximizingPlayer, random, aborted);
+
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        this.rootBlack = board.getBlack();
+        this.rootWhite = board.getWhite();
+        this.rootBoardSize = board.getBoardSize();
+        this.rootBlackToMove = maximizingPlayer;
+
+        return this.moves[bestChild(0)];
+    }
+
+    /**
+     * Resets the budget for a new search, and the tree unless its root was kept.
+     *
+     * @param config search settings
+     * @param kept   was the subtree of the root kept
+     */
+    private void startSearch(SearchConfig config, boolean kept) {
+
+        this.playouts.set(0);
+        this.maxDepth.set(0);
+        this.reusedVisits = kept ? this.visits[0] : 0;
+
+        if (!kept) {
+
+            this.size.set(1);
+            this.visits[0] = 0;
+            this.wins[0] = 0;
+            this.children[0] = 0;
+        }
+
+        this.deadline = Long.MAX_VALUE;
+        this.playoutLimit = Long.MAX_VALUE;
+
+        if (config.getTimeBudgetMillis() > 0) {
+            this.deadline = System.nanoTime() + config.getTimeBudgetMillis() * 1_000_000L;
+        }
+
+        if (config.getNodeBudget() > 0) {
+            this.playoutLimit = config.getNodeBudget();
+        } else if (config.getTimeBudgetMillis() == 0) {
+            this.playoutLimit = DEFAULT_PLAYOUTS;
+        }
+    }
+
+    /**
+     * Moves the subtree of the board's position to the root, when the position is the root
+     * of the last search or lies a few moves below it with the same player to move.
+     *
+     * @param board            board to search
+     * @param maximizingPlayer is black to move
+     * @return was a subtree kept
+     */
+    private boolean reroot(Board board, boolean maximizingPlayer) {
+
+        if (this.rootBoardSize != board.getBoardSize()) {
+            return false;
+        }
+
+        int index = find(0, this.rootBlack, this.rootWhite, this.rootBlackToMove, board.getBlack(), board.getWhite(),
+                maximizingPlayer, REUSE_PLIES);
+
+        if (index < 0) {
+            return false;
+        }
+
+        if (index > 0) {
+            compact(index);
+        }
+
+        return true;
+    }
+
+    /**
+     * Looks for the node of a position in the subtree of a node.
+     *
+     * @param index      node index
+     * @param black      black cells mask of the node
+     * @param white      white cells mask of the node
+     * @param blackMoves is black to move at the node
+     * @param goalBlack  black cells mask of the position
+     * @param goalWhite  white cells mask of the position
+     * @param goalMoves  is black to move at the position
+     * @param plies      number of moves to look below the node
+     * @return node index, or -1 when it isn't in the tree
+     */
+    private int find(int index, long black, long white, boolean blackMoves, long goalBlack, long goalWhite,
+                     boolean goalMoves, int plies) {
+
+        if (black == goalBlack && white == goalWhite && blackMoves == goalMoves) {
+            return index;
+        }
+
+        int first = this.children[index];
+
+        //Every move fills a cell, so a position with fewer cells can't be below the node.
+        if (plies == 0 || first <= 0 || Long.bitCount(goalBlack | goalWhite) <= Long.bitCount(black | white)) {
+            return -1;
+        }
+
+        for (int child = first; child < first + this.childCount[index]; child++) {
+
+            long own     = blackMoves ? black : white;
+            long changed = Game.performMovement(this.moves[child], own, this.rootBoardSize);
+            long next    = blackMoves ? black | changed : black & ~changed;
+            long other   = blackMoves ? white & ~changed : white | changed;
+            int  found   = find(child, next, other, !blackMoves, goalBlack, goalWhite, goalMoves, plies - 1);
+
+            if (found >= 0) {
+                return found;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Copies the subtree of a node into the spare arrays, with the node as the root, and makes
+     * them the tree. The children of every node keep taking a block of consecutive indexes.
+     *
+     * @param index index of the new root
+     */
+    private void compact(int index) {
+
+        int capacity = this.visits.length;
+
+        if (this.spareVisits == null) {
+
+            this.spareVisits = new int[capacity];
+            this.spareWins = new int[capacity];
+            this.spareChildren = new int[capacity];
+            this.spareChildCount = new byte[capacity];
+            this.spareMoves = new byte[capacity];
+        }
+
+        //The copied nodes are the queue: the old index of every copied node is kept in its children slot.
+        this.spareVisits[0] = this.visits[index];
+        this.spareWins[0] = this.wins[index];
+        this.spareMoves[0] = this.moves[index];
+        this.spareChildren[0] = index;
+
+        int size = 1;
+
+        for (int next = 0; next < size; next++) {
+
+            int old   = this.spareChildren[next];
+            int first = this.children[old];
+            int count = first > 0 ? this.childCount[old] : 0;
+
+            this.spareChildren[next] = count > 0 ? size : 0;
+            this.spareChildCount[next] = (byte) count;
+
+            for (int child = first; child < first + count; child++, size++) {
+
+                this.spareVisits[size] = this.visits[child];
+                this.spareWins[size] = this.wins[child];
+                this.spareMoves[size] = this.moves[child];
+                this.spareChildren[size] = child;
+            }
+        }
+
+        int[]  visits     = this.visits;
+        int[]  wins       = this.wins;
+        int[]  children   = this.children;
+        byte[] childCount = this.childCount;
+        byte[] moves      = this.moves;
+
+        this.visits = this.spareVisits;
+        this.wins = this.spareWins;
+        this.children = this.spareChildren;
+        this.childCount = this.spareChildCount;
+        this.moves = this.spareMoves;
+
+        this.spareVisits = visits;
+        this.spareWins = wins;
+        this.spareChildren = children;
+        this.spareChildCount = childCount;
+        this.spareMoves = moves;
+
+        this.size.set(size);
+    }
+
+    /**
+     * Plays random games from the leaves of the tree until the budget is spent or the search is aborted.
+     *
+     * @param board            board at the root, private to the thread
+     * @param maximizingPlayer is black to move at the root
+     * @param random           random numbers of the thread
+     * @param aborted          is the search aborted
+     */
+    private void playGames(Board board, boolean maximizingPlayer, SplittableRandom random, BooleanSupplier aborted) {
+
+        int[] path = new int[MAX_PLY];
+
+        while (true) {
+
+            long game = this.playouts.getAndIncrement();
+
+            if (game >= this.playoutLimit || aborted.getAsBoolean()
+                    || ((game & CHECK_INTERVAL) == 0 && System.nanoTime() >= this.deadline)) {
+                return;
+            }
+
+            playGame(board, maximizingPlayer, random, path);
+        }
+    }
+
+    /**
+     * Walks down the tree, plays a random game from the reached leaf and records its winner
+     * on the walked path.
+     *
+     * @param board            board at the root, left as it was
+     * @param maximizingPlayer is black to move at the root
+     * @param random           random numbers of the thread
+     * @param path             buffer for the walked nodes
+     */
+    private void playGame(Board board, boolean maximizingPlayer, SplittableRandom random, int[] path) {
+
+        boolean black = maximizingPlayer;
+        int     index = 0;
+        int     depth = 0;
+        int     made  = 0;
+
+        path[0] = 0;
+        INTS.getAndAdd(this.visits, 0, 1);
+
+        //Walk down while the nodes have children.
+        while (!board.isTerminal()) {
+
+            int first = (int) INTS.getAcquire(this.children, index);
+
+            if (first == 0) {
+
+                //A node gets children once it was visited a few times, so single visits cost no memory.
+                if ((int) INTS.getAcquire(this.visits, index) <= EXPAND_VISITS
+                        || !INTS.compareAndSet(this.children, index, 0, EXPANDING)
+                        || !expand(index, board.legalMoves())) {
+                    break;
+                }
+
+                first = this.children[index];
+            } else if (first == EXPANDING) {
+                break;
+            }
+
+            index = select(index, first);
+            path[++depth] = index;
+            INTS.getAndAdd(this.visits, index, 1);
+
+            board.makeMove(this.moves[index], black);
+            black = !black;
+            made++;
+        }
+
+        if (depth > this.maxDepth.get()) {
+            this.maxDepth.accumulateAndGet(depth, Math::max);
+        }
+
+        //Play random moves to the end of the game.
+        while (!board.isTerminal()) {
+
+            long legal = board.legalMoves();
+
+            board.makeMove(randomMove(legal, random.nextInt(Long.bitCount(legal))), black);
+            black = !black;
+            made++;
+        }
+
+        boolean blackWon = blackWins(board.getBlack(), board.getWhite(), !black);
+
+        for (int i = 0; i < made; i++) {
+            board.undoMove();
+        }
+
+        //The node of a move counts the wins of the player who made it.
+        boolean blackMoved = maximizingPlayer;
+
+        for (int i = 1; i <= depth; i++) {
+
+            if (blackMoved == blackWon) {
+                INTS.getAndAdd(this.wins, path[i], 1);
+            }
+
+            blackMoved = !blackMoved;
+        }
+    }
+
+    /**
+     * Adds the children of a node to the tree.
+     * The node's children index must be 0 or EXPANDING and owned by the caller.
+     *
+     * @param index node index
+     * @param legal mask of the moves of the children
+     * @return were the children added, false when the tree is full
+     */
+    private boolean expand(int index, long legal) {
+
+        int count = Long.bitCount(legal);
+        int first = this.size.get() + count > this.visits.length ? this.visits.length : this.size.getAndAdd(count);
+
+        //The tree is full.
+        if (first + count > this.visits.length) {
+
+            INTS.setRelease(this.children, index, 0);
+            return false;
+        }
+
+        for (int child = first; legal != 0; legal &= legal - 1, child++) {
+
+            this.visits[child] = 0;
+            this.wins[child] = 0;
+            this.children[child] = 0;
+            this.moves[child] = (byte) Long.numberOfTrailingZeros(legal);
+        }
+
+        this.childCount[index] = (byte) count;
+        INTS.setRelease(this.children, index, first);
+
+        return true;
+    }
+
+    /**
+     * Selects the child with the highest upper confidence bound, an unvisited child first.
+     *
+     * @param index node index
+     * @param first index of the first child
+     * @return index of the selected child
+     */
+    private int select(int index, int first) {
+
+        int    count     = this.childCount[index];
+        double logVisits = Math.log(Math.max(1, (int) INTS.getOpaque(this.visits, index)));
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int    best      = first;
+
+        for (int child = first; child < first + count; child++) {
+
+            int visited = (int) INTS.getOpaque(this.visits, child);
+
+            if (visited == 0) {
+                return child;
+            }
+
+            double value = (double) (int) INTS.getOpaque(this.wins, child) / visited
+                    + EXPLORATION * Math.sqrt(logVisits / visited);
+
+            if (value > bestValue) {
+
+                bestValue = value;
+                best = child;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the child of a node visited the most, the first one in board order among equals.
+     *
+     * @param index index of the node
+     * @return index of the child
+     */
+    private int bestChild(int index) {
+
+        int first = this.children[index];
+        int best  = first;
+
+        for (int child = first + 1; child < first + this.childCount[index]; child++) {
+
+            if (this.visits[child] > this.visits[best]) {
+                best = child;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns the share of the games won by the player of the best root move, in thousandths.
+     *
+     * @return win rate of the best move
+     */
+    public int bestWinRate() {
+
+        int best = bestChild(0);
+
+        return this.visits[best] == 0 ? 500 : (int) (1000L * this.wins[best] / this.visits[best]);
+    }
+
+    /**
+     * Returns the reply the tree expects to the best root move: the most visited child of its node.
+     *
+     * @return cell index of the reply, or -1 when the node of the best move has no children
+     */
+    public int expectedReply() {
+
+        int best = bestChild(0);
+
+        return this.children[best] == 0 ? -1 : this.moves[bestChild(best)];
+    }
+
+    /**
+     * Returns the n-th move of a mask.
+     *
+     * @param moves mask of the moves
+     * @param n     number of moves to skip
+     * @return cell index of the move
+     */
+    private static int randomMove(long moves, int n) {
+
+        for (; n > 0; n--) {
+            moves &= moves - 1;
+        }
+
+        return Long.numberOfTrailingZeros(moves);
+    }
+
+    /**
+     * Checks if black won a finished game, the same way Game.winner does:
+     * a draw goes to the player who didn't make the last move.
+     *
+     * @param black          black cells mask
+     * @param white          white cells mask
+     * @param blackMovedLast did black make the last move
+     * @return did black win
+     */
+    private static boolean blackWins(long black, long white, boolean blackMovedLast) {
+
+        int blackCounter = Long.bitCount(black);
+        int whiteCounter = Long.bitCount(white);
+
+        return blackMovedLast ? blackCounter > whiteCounter : blackCounter >= whiteCounter;
+    }
+
+    /**
+     * Playouts getter.
+     *
+     * @return games played by the last search
+     */
+    public long getPlayouts() {
+        return Math.min(playouts.get(), playoutLimit);
+    }
+
+    /**
+     * Reused visits getter.
+     *
+     * @return games of the subtree kept from the earlier searches at the start of the last search
+     */
+    public int getReusedVisits() {
+        return reusedVisits;
+    }
+
+    /**
+     * Depth getter.
+     *
+     * @return deepest node reached by the last search
+     */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Size getter.
+     *
+     * @return number of tree nodes used by the last search
+     */
+    public int getSize() {
+        return Math.min(size.get(), visits.length);
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * The enum lists the move ordering techniques of the search.
+ * The search chooses the same node with any of them, they only change how much of the tree is pruned.
+ */
+public enum MoveOrder {
+
+    //The best move stored in the transposition table, from a previous iteration or move.
+    HASH_MOVE,
+
+    //Moves that caused a cutoff at the same ply, two per ply.
+    KILLERS,
+
+    //Moves scored by the cutoffs they caused anywhere in the tree.
+    HISTORY,
+
+    //Moves scored by the cells they change and the edge cells among them.
+    PRESORT
+}
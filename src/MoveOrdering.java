@@ -0,0 +1,186 @@
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * The class orders the moves of a node before the search visits them.
+ * The hash move comes first, then the killer moves of the ply, then the rest by their
+ * history score and their static score. A disabled technique leaves its moves in board order.
+ */
+public class MoveOrdering {
+
+    //Killer moves kept per ply.
+    private static final int KILLERS = 2;
+
+    //History score above which all the scores are halved.
+    private static final int MAX_HISTORY = 1 << 20;
+
+    //Factor of the history score over the static score.
+    private static final int HISTORY_FACTOR = 1 << 8;
+
+    //Enabled techniques.
+    private final boolean hashMove;
+    private final boolean killers;
+    private final boolean history;
+    private final boolean presort;
+
+    //Killer moves of every ply, -1 for none.
+    private final int[] killerMoves = new int[Search.MAX_PLY * KILLERS];
+
+    //History scores per player and cell, black first.
+    private final int[] historyScores = new int[2 * Long.SIZE];
+
+    //Scores of the ordered moves.
+    private final int[] keys = new int[Long.SIZE];
+
+    /**
+     * Constructor.
+     *
+     * @param techniques enabled techniques
+     */
+    public MoveOrdering(EnumSet<MoveOrder> techniques) {
+
+        this.hashMove = techniques.contains(MoveOrder.HASH_MOVE);
+        this.killers = techniques.contains(MoveOrder.KILLERS);
+        this.history = techniques.contains(MoveOrder.HISTORY);
+        this.presort = techniques.contains(MoveOrder.PRESORT);
+
+        Arrays.fill(this.killerMoves, -1);
+    }
+
+    /**
+     * Prepares for a new search: the killers of the previous one are forgotten and the history fades.
+     */
+    public void newSearch() {
+
+        Arrays.fill(this.killerMoves, -1);
+
+        for (int i = 0; i < this.historyScores.length; i++) {
+            this.historyScores[i] >>= 1;
+        }
+    }
+
+    /**
+     * Orders the legal moves of a node.
+     *
+     * @param board    board of the node
+     * @param moves    mask of the legal moves
+     * @param hashMove best move from the transposition table, or -1
+     * @param ply      distance from the starting node
+     * @param isBlack  is the player black
+     * @param ordered  receives the ordered moves
+     * @param offset   index of the first ordered move
+     * @return number of moves
+     */
+    public int order(Board board, long moves, int hashMove, int ply, boolean isBlack, int[] ordered, int offset) {
+
+        int count = 0;
+
+        //The moves that come first in their own order.
+        if (this.hashMove && hashMove >= 0 && (moves & (1L << hashMove)) != 0) {
+
+            ordered[offset + count++] = hashMove;
+            moves &= ~(1L << hashMove);
+        }
+
+        if (this.killers) {
+
+            for (int i = 0; i < KILLERS; i++) {
+
+                int killer = this.killerMoves[ply * KILLERS + i];
+
+                if (killer >= 0 && (moves & (1L << killer)) != 0) {
+
+                    ordered[offset + count++] = killer;
+                    moves &= ~(1L << killer);
+                }
+            }
+        }
+
+        if (!this.history && !this.presort) {
+
+            for (; moves != 0; moves &= moves - 1) {
+                ordered[offset + count++] = Long.numberOfTrailingZeros(moves);
+            }
+
+            return count;
+        }
+
+        int  boardSize = board.getBoardSize();
+        long own       = isBlack ? board.getBlack() : board.getWhite();
+        long opponent  = isBlack ? board.getWhite() : board.getBlack();
+        long edge      = Bitboard.edge(boardSize);
+        int  side      = isBlack ? 0 : Long.SIZE;
+        int  first     = count;
+
+        //Insert every move after the moves with a higher or equal score.
+        for (; moves != 0; moves &= moves - 1) {
+
+            int square = Long.numberOfTrailingZeros(moves);
+            int key    = 0;
+
+            if (this.history) {
+                key = this.historyScores[side + square] * HISTORY_FACTOR;
+            }
+
+            if (this.presort) {
+
+                //The change of the heuristic: every changed cell and edge cell counts, taken cells twice.
+                long changed = Game.performMovement(square, own, boardSize);
+                long taken   = changed & opponent;
+
+                key += Long.bitCount(changed) + Long.bitCount(taken)
+                        + Long.bitCount(changed & edge) + Long.bitCount(taken & edge);
+            }
+
+            int i = count++;
+
+            while (i > first && this.keys[i - 1] < key) {
+
+                ordered[offset + i] = ordered[offset + i - 1];
+                this.keys[i] = this.keys[i - 1];
+                i--;
+            }
+
+            ordered[offset + i] = square;
+            this.keys[i] = key;
+        }
+
+        return count;
+    }
+
+    /**
+     * Records a move that caused a cutoff.
+     *
+     * @param move    cell index of the move
+     * @param ply     distance from the starting node
+     * @param depth   remaining search depth of the node
+     * @param isBlack is the player black
+     */
+    public void cutoff(int move, int ply, int depth, boolean isBlack) {
+
+        if (this.killers) {
+
+            int index = ply * KILLERS;
+
+            if (this.killerMoves[index] != move) {
+
+                System.arraycopy(this.killerMoves, index, this.killerMoves, index + 1, KILLERS - 1);
+                this.killerMoves[index] = move;
+            }
+        }
+
+        if (this.history) {
+
+            int index = (isBlack ? 0 : Long.SIZE) + move;
+
+            this.historyScores[index] += depth * depth;
+
+            if (this.historyScores[index] > MAX_HISTORY) {
+
+                for (int i = 0; i < this.historyScores.length; i++) {
+                    this.historyScores[i] >>= 1;
+                }
+            }
+        }
+    }
+}
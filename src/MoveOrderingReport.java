@@ -0,0 +1,100 @@
+import java.util.EnumSet;
+
+/**
+ * The class measures the node reduction of every move ordering technique.
+ * It searches a fixed set of random positions one depth deeper at a time with every technique alone
+ * and with all of them, checks that they all choose the same nodes and prints the node counts.
+ *
+ * Usage: MoveOrderingReport [depth] [positions]
+ */
+public class MoveOrderingReport {
+
+    public static void main(String args[]) {
+
+        int depth     = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int positions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Node[] nodes    = SpeedupReport.randomPositions(positions);
+        Node[] expected = null;
+        long   baseline = 0;
+
+        //Warm up the compiler so the first technique isn't penalized.
+        search(nodes, depth, EnumSet.allOf(MoveOrder.class), new long[1]);
+
+        System.out.println("ordering                                  time(ms)        nodes  reduction");
+
+        for (EnumSet<MoveOrder> order : orders()) {
+
+            long[] total  = new long[1];
+            long   start  = System.nanoTime();
+            Node[] chosen = search(nodes, depth, order, total);
+            double time   = (System.nanoTime() - start) / 1e6;
+
+            if (expected == null) {
+                expected = chosen;
+                baseline = total[0];
+            }
+
+            for (int i = 0; i < expected.length; i++) {
+
+                if (expected[i].getBlack() != chosen[i].getBlack() || expected[i].getWhite() != chosen[i].getWhite()) {
+                    throw new IllegalStateException("Position " + i + " differs with " + order);
+                }
+            }
+
+            System.out.printf("%-40s %10.1f %12d %9.1f%%%n", order.isEmpty() ? "board order" : order.toString(),
+                    time, total[0], 100.0 * (baseline - total[0]) / baseline);
+        }
+    }
+
+    /**
+     * Returns the orderings to compare: none, every technique alone, and all of them.
+     *
+     * @return move orderings
+     */
+    private static EnumSet<MoveOrder>[] orders() {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        EnumSet<MoveOrder>[] orders = new EnumSet[MoveOrder.values().length + 2];
+
+        orders[0] = EnumSet.noneOf(MoveOrder.class);
+
+        for (MoveOrder order : MoveOrder.values()) {
+            orders[order.ordinal() + 1] = EnumSet.of(order);
+        }
+
+        orders[orders.length - 1] = EnumSet.allOf(MoveOrder.class);
+
+        return orders;
+    }
+
+    /**
+     * Searches the positions one depth deeper at a time, so the hash moves of the previous depth are used.
+     *
+     * @param nodes positions
+     * @param depth maximum search depth
+     * @param order move ordering techniques
+     * @param total receives the number of visited nodes
+     * @return nodes chosen at the maximum depth
+     */
+    private static Node[] search(Node[] nodes, int depth, EnumSet<MoveOrder> order, long[] total) {
+
+        SearchConfig config = new SearchConfig();
+        config.setMoveOrder(order);
+
+        Node[] chosen = new Node[nodes.length];
+
+        for (int i = 0; i < nodes.length; i++) {
+
+            Search search = new Search(config, new TranspositionTable(config.getTableBytes()));
+
+            for (int current = 1; current <= depth; current++) {
+
+                chosen[i] = search.run(nodes[i], current, true);
+                total[0] += search.getNodes();
+            }
+        }
+
+        return chosen;
+    }
+}
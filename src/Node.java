@@ -1,4 +1,6 @@
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * The class represents a node in the game.
@@ -6,12 +8,24 @@ import java.util.ArrayList;
  */
 public class Node {
 
-    //Game board.
-    private char[][] board;
+    //Black cells mask.
+    private long black;
+
+    //White cells mask.
+    private long white;
 
     //Board size.
     private int boardSize;
 
+    //Zobrist hash of the cells.
+    private long hash;
+
+    //Empty cells next to an occupied cell, which are the legal moves.
+    private long frontier;
+
+    //Cell index of the move that created the node, or -1.
+    private int move;
+
     //Node color.
     private char color;
 
@@ -42,9 +56,106 @@ public class Node {
      */
     public Node(char[][] board, int boardSize, char color) {
 
-        this.board = board;
+        this(Bitboard.fromBoard(board, boardSize, 'B'), Bitboard.fromBoard(board, boardSize, 'W'), boardSize, color);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param black     black cells mask
+     * @param white     white cells mask
+     * @param boardSize board size
+     * @param color     player's color
+     */
+    public Node(long black, long white, int boardSize, char color) {
+
+        this(black, white, boardSize, color, Zobrist.hash(black, white), Game.legalMoves(black, white, boardSize), -1);
+        countColors();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param black     black cells mask
+     * @param white     white cells mask
+     * @param boardSize board size
+     * @param color     player's color
+     * @param hash      Zobrist hash of the cells
+     * @param frontier  legal moves
+     * @param move      cell index of the move that created the node
+     */
+    private Node(long black, long white, int boardSize, char color, long hash, long frontier, int move) {
+
+        this.black = black;
+        this.white = white;
         this.boardSize = boardSize;
         this.color = color;
+        this.hash = hash;
+        this.frontier = frontier;
+        this.move = move;
+    }
+
+    /**
+     * Black cells mask getter.
+     *
+     * @return mask
+     */
+    public long getBlack() {
+        return black;
+    }
+
+    /**
+     * White cells mask getter.
+     *
+     * @return mask
+     */
+    public long getWhite() {
+        return white;
+    }
+
+    /**
+     * Hash getter.
+     *
+     * @return Zobrist hash of the cells
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Frontier getter.
+     *
+     * @return mask of the empty cells next to an occupied cell, which are the legal moves
+     */
+    public long getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * Move getter.
+     *
+     * @return cell index of the move that created the node, or -1
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns the game board of the node.
+     *
+     * @return game board
+     */
+    public char[][] getBoard() {
+        return Bitboard.toBoard(this.black, this.white, this.boardSize);
     }
 
     /**
@@ -126,108 +237,166 @@ public class Node {
      */
     public boolean isTerminal() {
 
-        //Go over all the board and look for an empty cell.
-        for (int i = 0; i < this.boardSize; i++) {
-            for (int j = 0; j < this.boardSize; j++) {
+        return this.emptyCounter == 0;
+    }
 
-                //Check if cell is empty.
-                if (this.board[i][j] == 'E') {
+    /**
+     * Counts all the colors on the board.
+     * Only the starting node counts them, the other nodes update their parent's counters.
+     */
+    private void countColors() {
 
-                    return false;
-                }
-            }
-        }
+        long edge = Bitboard.edge(this.boardSize);
 
-        return true;
+        this.blackCounter = Long.bitCount(this.black);
+        this.blackEdgeCounter = Long.bitCount(this.black & edge);
+        this.whiteCounter = Long.bitCount(this.white);
+        this.whiteEdgeCounter = Long.bitCount(this.white & edge);
+        this.emptyCounter = this.boardSize * this.boardSize - this.blackCounter - this.whiteCounter;
     }
 
     /**
-     * Counts all the colors on the board.
+     * Gets all the possible states from the current state.
+     *
+     * @param isMaximizing is a maximizing player
+     * @return list of nodes
      */
-    public void countColors() {
+    public ArrayList<Node> getSuccessors(boolean isMaximizing) {
 
-        this.blackCounter = 0;
-        this.blackEdgeCounter = 0;
-        this.whiteCounter = 0;
-        this.whiteEdgeCounter = 0;
-        this.emptyCounter = 0;
+        //Perform all the possible moves from the current state, in board order.
+        ArrayList<Node> successors = new ArrayList<>();
 
-        //Count the different colors.
-        for (int i = 0; i < this.boardSize; i++) {
-            for (int j = 0; j < this.boardSize; j++) {
+        for (Node successor : successors(isMaximizing)) {
+            successors.add(successor);
+        }
 
-                //Check if cell black.
-                if (this.board[i][j] == 'B') {
+        return successors;
+    }
 
-                    this.blackCounter++;
+    /**
+     * Iterates over the possible states from the current state, in board order.
+     * Only the legal moves are found up front, every state is created when it is reached,
+     * so the states after a cutoff are never created.
+     *
+     * @param isMaximizing is a maximizing player
+     * @return states
+     */
+    public Iterable<Node> successors(boolean isMaximizing) {
 
-                    if (this.isEdgeCell(i, j)) {
+        return () -> new SuccessorIterator(this, this.frontier, isMaximizing);
+    }
 
-                        this.blackEdgeCounter++;
-                    }
-                } else if (this.board[i][j] == 'W') {
+    /**
+     * Gets the state after the given move.
+     *
+     * @param square       cell index of the move
+     * @param isMaximizing is a maximizing player
+     * @return child node
+     */
+    public Node getSuccessor(int square, boolean isMaximizing) {
 
-                    this.whiteCounter++;
+        Node child;
 
-                    if (this.isEdgeCell(i, j)) {
+        //Perform the move on the board.
+        if (isMaximizing) {
 
-                        this.whiteEdgeCounter++;
-                    }
-                } else {
+            long changed  = Game.performMovement(square, this.black, this.boardSize);
+            long hash     = this.hash ^ Zobrist.delta(changed, this.white, true);
+            long frontier = Game.updateFrontier(this.frontier, changed, this.black | this.white | changed,
+                    this.boardSize);
 
-                    this.emptyCounter++;
-                }
-            }
+            child = new Node(this.black | changed, this.white & ~changed, this.boardSize, 'B', hash, frontier, square);
+            child.updateCounters(this, changed, changed & this.white, true);
+        } else {
+
+            long changed  = Game.performMovement(square, this.white, this.boardSize);
+            long hash     = this.hash ^ Zobrist.delta(changed, this.black, false);
+            long frontier = Game.updateFrontier(this.frontier, changed, this.black | this.white | changed,
+                    this.boardSize);
+
+            child = new Node(this.black & ~changed, this.white | changed, this.boardSize, 'W', hash, frontier, square);
+            child.updateCounters(this, changed, changed & this.black, false);
         }
+
+        return child;
     }
 
     /**
-     * Checks if the given cell is an edge on the board.
+     * Sets the counters to the parent's counters changed by a move.
      *
-     * @param row    row
-     * @param column column
-     * @return is edge
+     * @param parent  parent node
+     * @param changed cells that received the player's color
+     * @param taken   opponent cells among the changed cells
+     * @param isBlack is the player black
      */
-    private boolean isEdgeCell(int row, int column) {
+    private void updateCounters(Node parent, long changed, long taken, boolean isBlack) {
+
+        long edge       = Bitboard.edge(this.boardSize);
+        int  placed     = Long.bitCount(changed);
+        int  placedEdge = Long.bitCount(changed & edge);
+        int  lost       = Long.bitCount(taken);
+        int  lostEdge   = Long.bitCount(taken & edge);
+
+        if (isBlack) {
+            this.blackCounter = parent.blackCounter + placed;
+            this.blackEdgeCounter = parent.blackEdgeCounter + placedEdge;
+            this.whiteCounter = parent.whiteCounter - lost;
+            this.whiteEdgeCounter = parent.whiteEdgeCounter - lostEdge;
+        } else {
+            this.whiteCounter = parent.whiteCounter + placed;
+            this.whiteEdgeCounter = parent.whiteEdgeCounter + placedEdge;
+            this.blackCounter = parent.blackCounter - lost;
+            this.blackEdgeCounter = parent.blackEdgeCounter - lostEdge;
+        }
 
-        return (row == 0 || row == this.boardSize - 1 || column == 0 || column == this.boardSize - 1);
+        //The cells that weren't the opponent's were empty.
+        this.emptyCounter = parent.emptyCounter - (placed - lost);
     }
 
     /**
-     * Gets all the possible states from the current state.
-     *
-     * @param isMaximizing is a maximizing player
-     * @return list of nodes
+     * The class iterates over the states after the remaining moves of a node.
      */
-    public ArrayList<Node> getSuccessors(boolean isMaximizing) {
+    private static final class SuccessorIterator implements Iterator<Node> {
 
-        char childColor;
+        //Node the moves are made from.
+        private final Node parent;
 
-        if (isMaximizing) {
-            childColor = 'B';
-        } else {
-            childColor = 'W';
-        }
+        //Is a maximizing player.
+        private final boolean isMaximizing;
 
-        //Perform all the possible moves from the current state.
-        ArrayList<Node> successors = new ArrayList<>();
+        //Cells of the moves that weren't made yet.
+        private long moves;
 
-        for (int i = 0; i < this.boardSize; i++) {
-            for (int j = 0; j < this.boardSize; j++) {
+        /**
+         * Constructor.
+         *
+         * @param parent       node the moves are made from
+         * @param moves        cells of the legal moves
+         * @param isMaximizing is a maximizing player
+         */
+        private SuccessorIterator(Node parent, long moves, boolean isMaximizing) {
 
-                //Check if the move is legal.
-                if (Game.isLegalMove(i, j, this.board, this.boardSize)) {
+            this.parent = parent;
+            this.moves = moves;
+            this.isMaximizing = isMaximizing;
+        }
 
-                    //Perform the move on the board.
-                    char[][] childBoard = Game.performMovement(i, j, childColor, this.board, this.boardSize);
-                    Node     child      = new Node(childBoard, this.boardSize, childColor);
+        @Override
+        public boolean hasNext() {
+            return this.moves != 0;
+        }
+
+        @Override
+        public Node next() {
 
-                    //Add the state to the list.
-                    successors.add(child);
-                }
+            if (this.moves == 0) {
+                throw new NoSuchElementException();
             }
-        }
 
-        return successors;
+            int square = Long.numberOfTrailingZeros(this.moves);
+            this.moves &= this.moves - 1;
+
+            return this.parent.getSuccessor(square, this.isMaximizing);
+        }
     }
 }
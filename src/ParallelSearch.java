@@ -0,0 +1,390 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The class splits the search of a node between threads ("Young Brothers Wait").
+ * The eldest child of a node is searched first by the node's own thread, and only then
+ * are the younger siblings searched in parallel, sharing the best value found so far.
+ * When a sibling refutes the node, the siblings still running are cancelled.
+ *
+ * The siblings are searched with a window one point wider than the best value,
+ * so ties are resolved exactly and the chosen child is the same as in the serial search.
+ */
+public final class ParallelSearch {
+
+    /**
+     * Private constructor.
+     */
+    private ParallelSearch() {
+
+    }
+
+    /**
+     * Searches the younger siblings of a node in parallel.
+     *
+     * @param parent        search of the node
+     * @param moves         moves of the younger siblings
+     * @param depth         remaining search depth of the node
+     * @param ply           distance of the node from the starting node
+     * @param alpha         window lower bound of the node
+     * @param beta          window upper bound of the node
+     * @param maximizing    is the node a maximizing player
+     * @param bestValue     value of the eldest child
+     * @param bestMove      move of the eldest child
+     * @param bestVariation principal variation through the eldest child
+     * @return split point holding the best child
+     */
+    static SplitPoint split(Search parent, long moves, int depth, int ply, int alpha, int beta,
+                            boolean maximizing, int bestValue, int bestMove, int[] bestVariation) {
+
+        SplitPoint point = new SplitPoint(parent.getSplit(), maximizing, alpha, beta,
+                bestValue, bestMove, bestVariation);
+
+        List<SiblingTask> tasks = new ArrayList<>(Long.bitCount(moves));
+
+        while (moves != 0) {
+
+            int move = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            tasks.add(new SiblingTask(point, parent, move, depth, ply));
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+
+        parent.addCounters(point);
+
+        //The budget ran out, or an ancestor was refuted, while the siblings were searched.
+        //The siblings that returned early leave the node's value incomplete.
+        if (point.isBudgetSpent() || point.isAncestorCancelled()) {
+            parent.stop();
+        }
+
+        return point;
+    }
+
+    /**
+     * The class holds the shared state of a node whose children are searched in parallel.
+     */
+    static final class SplitPoint {
+
+        //Split point of an ancestor node, or null.
+        private final SplitPoint parent;
+
+        //Is the node a maximizing player.
+        private final boolean maximizing;
+
+        //Window lower bound of the node.
+        private final int alpha;
+
+        //Window upper bound of the node.
+        private final int beta;
+
+        //Set when the node is refuted and its siblings should stop.
+        private volatile boolean cancelled;
+
+        //Set when the search budget is spent.
+        private volatile boolean budgetSpent;
+
+        //Value of the best child.
+        private int bestValue;
+
+        //Move of the best child.
+        private int bestMove;
+
+        //Principal variation through the best child.
+        private int[] bestVariation;
+
+        //Counters of the sibling searches.
+        private long nodes;
+        private long leaves;
+        private long cutoffs;
+        private long tableCutoffs;
+
+        /**
+         * Constructor.
+         *
+         * @param parent     split point of an ancestor node, or null
+         * @param maximizing is the node a maximizing player
+         * @param alpha      window lower bound of the node
+         * @param beta       window upper bound of the node
+         * @param bestValue     value of the eldest child
+         * @param bestMove      move of the eldest child
+         * @param bestVariation principal variation through the eldest child
+         */
+        SplitPoint(SplitPoint parent, boolean maximizing, int alpha, int beta, int bestValue, int bestMove,
+                   int[] bestVariation) {
+
+            this.parent = parent;
+            this.maximizing = maximizing;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.bestValue = bestValue;
+            this.bestMove = bestMove;
+            this.bestVariation = bestVariation;
+        }
+
+        /**
+         * Returns the window lower bound for the next sibling.
+         *
+         * @return lower bound
+         */
+        synchronized int low() {
+
+            if (this.maximizing && this.bestValue > this.alpha) {
+                return this.bestValue - 1;
+            }
+
+            return this.alpha;
+        }
+
+        /**
+         * Returns the window upper bound for the next sibling.
+         *
+         * @return upper bound
+         */
+        synchronized int high() {
+
+            if (!this.maximizing && this.bestValue < this.beta) {
+                return this.bestValue + 1;
+            }
+
+            return this.beta;
+        }
+
+        /**
+         * Offers the result of a sibling.
+         *
+         * @param value     value of the sibling
+         * @param move      move of the sibling
+         * @param variation principal variation through the sibling
+         */
+        synchronized void update(int value, int move, int[] variation) {
+
+            boolean earlier = value == this.bestValue && move < this.bestMove;
+
+            if (this.maximizing ? (value > this.bestValue || earlier) : (value < this.bestValue || earlier)) {
+
+                this.bestValue = value;
+                this.bestMove = move;
+                this.bestVariation = variation;
+            }
+
+            //The node is refuted, so the remaining siblings won't change anything.
+            if (this.maximizing ? this.bestValue >= this.beta : this.bestValue <= this.alpha) {
+                this.cancelled = true;
+            }
+        }
+
+        /**
+         * Adds the counters of a sibling search.
+         *
+         * @param nodes        visited nodes
+         * @param leaves       evaluated leaves
+         * @param cutoffs      nodes cut off by the window
+         * @param tableCutoffs nodes decided by the transposition table
+         */
+        synchronized void addCounters(long nodes, long leaves, long cutoffs, long tableCutoffs) {
+
+            this.nodes += nodes;
+            this.leaves += leaves;
+            this.cutoffs += cutoffs;
+            this.tableCutoffs += tableCutoffs;
+        }
+
+        /**
+         * Checks if the node or any of its ancestors was cancelled.
+         *
+         * @return is cancelled
+         */
+        boolean isCancelled() {
+
+            for (SplitPoint point = this; point != null; point = point.parent) {
+
+                if (point.cancelled) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Checks if any ancestor of the node was cancelled, as opposed to the node refuting itself.
+         *
+         * @return is an ancestor cancelled
+         */
+        boolean isAncestorCancelled() {
+            return this.parent != null && this.parent.isCancelled();
+        }
+
+        /**
+         * Marks the search budget as spent and cancels the whole split tree.
+         */
+        void spendBudget() {
+
+            SplitPoint root = this;
+
+            while (root.parent != null) {
+                root = root.parent;
+            }
+
+            root.budgetSpent = true;
+            root.cancelled = true;
+        }
+
+        /**
+         * Checks if the search budget is spent.
+         *
+         * @return is spent
+         */
+        boolean isBudgetSpent() {
+
+            for (SplitPoint point = this; point != null; point = point.parent) {
+
+                if (point.budgetSpent) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Best value getter.
+         *
+         * @return value of the best child
+         */
+        synchronized int getBestValue() {
+            return bestValue;
+        }
+
+        /**
+         * Best move getter.
+         *
+         * @return move of the best child
+         */
+        synchronized int getBestMove() {
+            return bestMove;
+        }
+
+        /**
+         * Best variation getter.
+         *
+         * @return principal variation through the best child
+         */
+        synchronized int[] getBestVariation() {
+            return bestVariation;
+        }
+
+        /**
+         * Nodes getter.
+         *
+         * @return nodes visited by the sibling searches
+         */
+        synchronized long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Leaves getter.
+         *
+         * @return leaves evaluated by the sibling searches
+         */
+        synchronized long getLeaves() {
+            return leaves;
+        }
+
+        /**
+         * Cutoffs getter.
+         *
+         * @return nodes of the sibling searches cut off by the window
+         */
+        synchronized long getCutoffs() {
+            return cutoffs;
+        }
+
+        /**
+         * Table cutoffs getter.
+         *
+         * @return nodes of the sibling searches decided by the transposition table
+         */
+        synchronized long getTableCutoffs() {
+            return tableCutoffs;
+        }
+    }
+
+    /**
+     * The class searches one younger sibling of a split node.
+     */
+    private static final class SiblingTask extends RecursiveAction {
+
+        //Version of the serialized form, the tasks are never serialized.
+        private static final long serialVersionUID = 1L;
+
+        //Split point of the node.
+        private final SplitPoint point;
+
+        //Search of the split node.
+        private final Search parent;
+
+        //Move leading to the sibling.
+        private final int move;
+
+        //Remaining search depth of the node.
+        private final int depth;
+
+        //Distance of the node from the starting node.
+        private final int ply;
+
+        /**
+         * Constructor.
+         *
+         * @param point  split point of the node
+         * @param parent search of the split node
+         * @param move   move leading to the sibling
+         * @param depth  remaining search depth of the node
+         * @param ply    distance of the node from the starting node
+         */
+        SiblingTask(SplitPoint point, Search parent, int move, int depth, int ply) {
+
+            this.point = point;
+            this.parent = parent;
+            this.move = move;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (this.point.isCancelled()) {
+                return;
+            }
+
+            //The sibling is searched by the worker search of the thread running the task.
+            Search worker = this.parent.fork(this.point);
+
+            try {
+                int value = worker.searchChild(this.move, this.depth, this.ply, this.point.low(), this.point.high(),
+                        !this.point.maximizing, false);
+
+                //A stopped search may have missed better moves.
+                if (!worker.isStopped()) {
+
+                    int[] child     = worker.principalVariation(this.ply + 1);
+                    int[] variation = new int[child.length + 1];
+
+                    variation[0] = this.move;
+                    System.arraycopy(child, 0, variation, 1, child.length);
+
+                    this.point.update(value, this.move, variation);
+                }
+            } finally {
+                worker.release();
+            }
+        }
+    }
+}
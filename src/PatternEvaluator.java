@@ -0,0 +1,334 @@
+/**
+ * The class evaluates positions with tables of line patterns.
+ * Every row, column, diagonal and anti-diagonal of the board is read as a number in base 3,
+ * a digit per cell: 0 for empty, 1 for black and 2 for white, the first cell of the line being
+ * the lowest digit. The number indexes a table of the line that holds the value of every pattern
+ * of the line, and the value of a position is the sum of the values of its lines.
+ *
+ * The tables are built once, so richer features, like the values of whole edge patterns,
+ * cost the same lookup per line as plain cell counting. Lines of a kind without tables are skipped.
+ * The values are for black, and full boards aren't handled: they are won, lost or drawn.
+ * Nothing requires the same value for the symmetric variants of a position, so a search with an
+ * evaluator doesn't prune symmetric moves or share table entries between symmetric positions.
+ */
+public class PatternEvaluator {
+
+    //Kinds of lines.
+    public static final int ROWS           = 0;
+    public static final int COLUMNS        = 1;
+    public static final int DIAGONALS      = 2;
+    public static final int ANTI_DIAGONALS = 3;
+
+    //Number of kinds of lines.
+    public static final int KINDS = 4;
+
+    //Base 3 number of every base 2 number of up to Bitboard.MAX_BOARD_SIZE digits, with the same digits.
+    private static final int[] TERNARY = new int[1 << Bitboard.MAX_BOARD_SIZE];
+
+    static {
+        for (int bits = 1; bits < TERNARY.length; bits++) {
+
+            int low = Integer.numberOfTrailingZeros(bits);
+
+            TERNARY[bits] = TERNARY[bits & (bits - 1)] + power(low);
+        }
+    }
+
+    //Board size.
+    private final int boardSize;
+
+    //Cell indexes of every line, per kind, in line order.
+    private final int[][][] lines;
+
+    //Value of every pattern of every line, per kind, null when the line isn't evaluated.
+    private final int[][][] tables;
+
+    //Does a kind have any table.
+    private final boolean[] used = new boolean[KINDS];
+
+    /**
+     * Constructor, no line is evaluated until its table is set.
+     *
+     * @param boardSize board size, at most Bitboard.MAX_BOARD_SIZE
+     */
+    public PatternEvaluator(int boardSize) {
+
+        if (boardSize < 1 || boardSize > Bitboard.MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + Bitboard.MAX_BOARD_SIZE);
+        }
+
+        this.boardSize = boardSize;
+        this.lines = new int[KINDS][][];
+        this.tables = new int[KINDS][][];
+
+        int diagonals = 2 * boardSize - 1;
+
+        this.lines[ROWS] = new int[boardSize][];
+        this.lines[COLUMNS] = new int[boardSize][];
+        this.lines[DIAGONALS] = new int[diagonals][];
+        this.lines[ANTI_DIAGONALS] = new int[diagonals][];
+
+        for (int i = 0; i < boardSize; i++) {
+
+            this.lines[ROWS][i] = new int[boardSize];
+            this.lines[COLUMNS][i] = new int[boardSize];
+
+            for (int j = 0; j < boardSize; j++) {
+
+                this.lines[ROWS][i][j] = i * boardSize + j;
+                this.lines[COLUMNS][i][j] = j * boardSize + i;
+            }
+        }
+
+        //Diagonal d holds the cells with column - row = d - (size - 1),
+        //anti-diagonal d the cells with row + column = d.
+        for (int d = 0; d < diagonals; d++) {
+
+            int length = boardSize - Math.abs(d - (boardSize - 1));
+
+            this.lines[DIAGONALS][d] = new int[length];
+            this.lines[ANTI_DIAGONALS][d] = new int[length];
+
+            int row    = Math.max(0, boardSize - 1 - d);
+            int column = Math.max(0, d - (boardSize - 1));
+
+            for (int j = 0; j < length; j++) {
+                this.lines[DIAGONALS][d][j] = (row + j) * boardSize + column + j;
+            }
+
+            row = Math.max(0, d - (boardSize - 1));
+            column = Math.min(d, boardSize - 1);
+
+            for (int j = 0; j < length; j++) {
+                this.lines[ANTI_DIAGONALS][d][j] = (row + j) * boardSize + column - j;
+            }
+        }
+
+        for (int kind = 0; kind < KINDS; kind++) {
+            this.tables[kind] = new int[this.lines[kind].length][];
+        }
+    }
+
+    /**
+     * Creates the evaluator of the game's heuristic: the difference of the black and white cells
+     * plus the difference of the black and white edge cells. It is read from the rows alone,
+     * an edge cell being worth 2 and any other cell 1.
+     *
+     * @param boardSize board size
+     * @return evaluator
+     */
+    public static PatternEvaluator standard(int boardSize) {
+
+        PatternEvaluator evaluator = new PatternEvaluator(boardSize);
+        long             edge      = Bitboard.edge(boardSize);
+        int[]            weights   = new int[boardSize * boardSize];
+
+        for (int square = 0; square < weights.length; square++) {
+            weights[square] = (edge & (1L << square)) != 0 ? 2 : 1;
+        }
+
+        evaluator.setCellWeights(ROWS, weights);
+
+        return evaluator;
+    }
+
+    /**
+     * Sets the tables of every line of a kind to the sum of the weights of the black cells
+     * minus the sum of the weights of the white cells.
+     *
+     * @param kind    kind of the lines
+     * @param weights weight of every cell index
+     */
+    public void setCellWeights(int kind, int[] weights) {
+
+        for (int line = 0; line < this.lines[kind].length; line++) {
+
+            int[] squares = this.lines[kind][line];
+            int[] table   = new int[power(squares.length)];
+
+            for (int pattern = 0; pattern < table.length; pattern++) {
+
+                int value = 0;
+                int rest  = pattern;
+
+                for (int square : squares) {
+
+                    int digit = rest % 3;
+
+                    if (digit == 1) {
+                        value += weights[square];
+                    } else if (digit == 2) {
+                        value -= weights[square];
+                    }
+
+                    rest /= 3;
+                }
+
+                table[pattern] = value;
+            }
+
+            setTable(kind, line, table);
+        }
+    }
+
+    /**
+     * Sets the table of a line.
+     *
+     * @param kind  kind of the line
+     * @param line  line index within its kind
+     * @param table value of every pattern of the line, or null to skip the line
+     */
+    public void setTable(int kind, int line, int[] table) {
+
+        if (table != null && table.length != power(this.lines[kind][line].length)) {
+            throw new IllegalArgumentException("A line of " + this.lines[kind][line].length + " cells needs "
+                    + power(this.lines[kind][line].length) + " patterns");
+        }
+
+        this.tables[kind][line] = table;
+        this.used[kind] = false;
+
+        for (int[] other : this.tables[kind]) {
+            this.used[kind] |= other != null;
+        }
+    }
+
+    /**
+     * Returns the cell indexes of a line, the first one being the lowest digit of its patterns.
+     *
+     * @param kind kind of the line
+     * @param line line index within its kind
+     * @return cell indexes
+     */
+    public int[] getLine(int kind, int line) {
+        return this.lines[kind][line].clone();
+    }
+
+    /**
+     * Returns the number of lines of a kind.
+     *
+     * @param kind kind of the lines
+     * @return number of lines
+     */
+    public int getLineCount(int kind) {
+        return this.lines[kind].length;
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns the value of a position for black.
+     *
+     * @param black black cells mask
+     * @param white white cells mask
+     * @return sum of the values of the lines' patterns
+     */
+    public int evaluate(long black, long white) {
+
+        int value = 0;
+
+        if (this.used[ROWS]) {
+            value += evaluateRows(this.tables[ROWS], black, white);
+        }
+
+        //The columns are the rows of the transposed board.
+        if (this.used[COLUMNS]) {
+            value += evaluateRows(this.tables[COLUMNS], Symmetry.transform(black, Symmetry.TRANSPOSE, this.boardSize),
+                    Symmetry.transform(white, Symmetry.TRANSPOSE, this.boardSize));
+        }
+
+        for (int kind = DIAGONALS; kind <= ANTI_DIAGONALS; kind++) {
+
+            if (!this.used[kind]) {
+                continue;
+            }
+
+            int[][] kindTables = this.tables[kind];
+            int[][] kindLines  = this.lines[kind];
+
+            for (int line = 0; line < kindLines.length; line++) {
+
+                if (kindTables[line] != null) {
+                    value += kindTables[line][pattern(kindLines[line], black, white)];
+                }
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the sum of the values of the rows' patterns.
+     *
+     * @param rowTables table of every row
+     * @param black     black cells mask
+     * @param white     white cells mask
+     * @return value of the rows
+     */
+    private int evaluateRows(int[][] rowTables, long black, long white) {
+
+        int size  = this.boardSize;
+        int mask  = (1 << size) - 1;
+        int value = 0;
+
+        for (int row = 0; row < size; row++) {
+
+            int[] table = rowTables[row];
+
+            if (table != null) {
+
+                int shift = row * size;
+
+                value += table[TERNARY[(int) (black >>> shift) & mask] + 2 * TERNARY[(int) (white >>> shift) & mask]];
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the pattern of a line.
+     *
+     * @param squares cell indexes of the line
+     * @param black   black cells mask
+     * @param white   white cells mask
+     * @return base 3 number of the line
+     */
+    private static int pattern(int[] squares, long black, long white) {
+
+        int pattern = 0;
+
+        for (int i = squares.length - 1; i >= 0; i--) {
+
+            long cell = 1L << squares[i];
+
+            pattern = 3 * pattern + ((black & cell) != 0 ? 1 : (white & cell) != 0 ? 2 : 0);
+        }
+
+        return pattern;
+    }
+
+    /**
+     * Returns a power of 3.
+     *
+     * @param exponent exponent
+     * @return 3 to the exponent
+     */
+    private static int power(int exponent) {
+
+        int result = 1;
+
+        for (int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+
+        return result;
+    }
+}
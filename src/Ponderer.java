@@ -0,0 +1,178 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The class searches a position in the background while the opponent is thinking,
+ * and keeps the result for the position until the search that expected it asks for it.
+ * The background search shares the transposition table of its search, so even a wrong
+ * guess leaves entries and hash moves behind for the positions both have in common.
+ * A single background search is kept and reused for every pondered position, so its arena
+ * and its Monte Carlo tree are allocated once.
+ */
+public class Ponderer {
+
+    //Runs the background searches on daemon threads, so pondering never keeps the program alive.
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+
+        Thread thread = new Thread(runnable, "ponder");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    //Settings of the background searches, without the statistics listener.
+    private final SearchConfig config;
+
+    //Transposition table shared with the search, or null.
+    private final TranspositionTable table;
+
+    //Pool for the parallel search, or null.
+    private final ForkJoinPool pool;
+
+    //Background search, created with the first pondered position.
+    private Search search;
+
+    //Result of the background search, null when not pondering.
+    private Future<Node> result;
+
+    //Cells of the pondered position.
+    private long black;
+    private long white;
+
+    //Is black to move at the pondered position.
+    private boolean maximizingPlayer;
+
+    //Statistics of the last taken result.
+    private SearchStats stats;
+
+    //Principal variation of the last taken result.
+    private int[] moves;
+
+    /**
+     * Constructor.
+     *
+     * @param config search settings
+     * @param table  transposition table shared with the search, or null
+     * @param pool   pool for the parallel search, or null
+     */
+    public Ponderer(SearchConfig config, TranspositionTable table, ForkJoinPool pool) {
+
+        this.config = config.copy();
+        this.config.setStatsListener(null);
+        this.table = table;
+        this.pool = pool;
+    }
+
+    /**
+     * Starts searching a position in the background, stopping the search of any other one.
+     *
+     * @param node             expected starting node of the next search
+     * @param maximizingPlayer is a maximizing player at the node
+     */
+    public void start(Node node, boolean maximizingPlayer) {
+
+        stop();
+
+        if (this.search == null) {
+            this.search = new Search(this.config, this.table, this.pool);
+        }
+
+        Search search = this.search;
+
+        this.black = node.getBlack();
+        this.white = node.getWhite();
+        this.maximizingPlayer = maximizingPlayer;
+        this.result = EXECUTOR.submit(() -> search.run(node, maximizingPlayer));
+    }
+
+    /**
+     * Returns the result of the background search when it searched the given position,
+     * waiting for it to finish, and stops the background search otherwise.
+     *
+     * @param node             starting node of the search
+     * @param maximizingPlayer is a maximizing player
+     * @return next node, or null when the position wasn't pondered
+     */
+    public Node take(Node node, boolean maximizingPlayer) {
+
+        if (this.result == null) {
+            return null;
+        }
+
+        if (node.getBlack() != this.black || node.getWhite() != this.white
+                || maximizingPlayer != this.maximizingPlayer) {
+
+            stop();
+            return null;
+        }
+
+        try {
+
+            Node next = this.result.get();
+
+            this.stats = this.search.getStats();
+            this.moves = this.search.getLastMoves();
+
+            return next;
+        } catch (InterruptedException e) {
+
+            //The background search may still be running, so it isn't reused.
+            Thread.currentThread().interrupt();
+            this.search = null;
+            return null;
+        } catch (ExecutionException e) {
+
+            //A failed background search leaves the search to the caller.
+            return null;
+        } finally {
+            this.result = null;
+        }
+    }
+
+    /**
+     * Stops the background search and waits for it to return, its result is dropped.
+     */
+    public void stop() {
+
+        if (this.result == null) {
+            return;
+        }
+
+        this.search.abort();
+
+        try {
+            this.result.get();
+            this.search.resume();
+        } catch (InterruptedException e) {
+
+            //The aborted search may still be running, so it isn't reused.
+            Thread.currentThread().interrupt();
+            this.search = null;
+        } catch (ExecutionException e) {
+            this.search.resume();
+        } finally {
+            this.result = null;
+        }
+    }
+
+    /**
+     * Statistics getter.
+     *
+     * @return statistics of the last taken result, or null
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Moves getter.
+     *
+     * @return principal variation of the last taken result, or null
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * The class contains the packed representation of positions.
+ * A position of a board of up to 5x5 cells fits into a single long: the black cells mask is
+ * the low half and the white cells mask the high half. Bigger boards keep the two masks
+ * of the bitboard representation, so any position takes one or two longs and no object.
+ */
+public final class Position {
+
+    //Largest board size whose position fits into a single long.
+    public static final int MAX_PACKED_BOARD_SIZE = 5;
+
+    //Mask of a half of a packed position.
+    private static final long HALF = 0xFFFFFFFFL;
+
+    /**
+     * Private constructor.
+     */
+    private Position() {
+
+    }
+
+    /**
+     * Checks if the positions of a board size fit into a single long.
+     * @param boardSize board size
+     * @return fits
+     */
+    public static boolean isPackable(int boardSize) {
+        return boardSize <= MAX_PACKED_BOARD_SIZE;
+    }
+
+    /**
+     * Packs the cells of a position into a single long.
+     * @param black black cells mask of a board of up to 5x5 cells
+     * @param white white cells mask of a board of up to 5x5 cells
+     * @return packed position
+     */
+    public static long pack(long black, long white) {
+        return black | (white << Integer.SIZE);
+    }
+
+    /**
+     * Packs a board into a single long.
+     * @param board game board of up to 5x5 cells
+     * @return packed position
+     */
+    public static long pack(char[][] board) {
+
+        int boardSize = board.length;
+
+        if (!isPackable(boardSize)) {
+            throw new IllegalArgumentException("Only boards of up to " + MAX_PACKED_BOARD_SIZE
+                    + " cells per row can be packed");
+        }
+
+        return pack(Bitboard.fromBoard(board, boardSize, 'B'), Bitboard.fromBoard(board, boardSize, 'W'));
+    }
+
+    /**
+     * Returns the black cells of a packed position.
+     * @param position packed position
+     * @return black cells mask
+     */
+    public static long black(long position) {
+        return position & HALF;
+    }
+
+    /**
+     * Returns the white cells of a packed position.
+     * @param position packed position
+     * @return white cells mask
+     */
+    public static long white(long position) {
+        return position >>> Integer.SIZE;
+    }
+
+    /**
+     * Returns the number of empty cells of a packed position.
+     * @param position packed position
+     * @param boardSize board size
+     * @return empty cells counter
+     */
+    public static int empties(long position, int boardSize) {
+        return boardSize * boardSize - Long.bitCount(position);
+    }
+}
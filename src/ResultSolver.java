@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * The class solves positions offline into a table of results.
+ * Every position is played out the way Game.play plays it, and the winner is then stored for
+ * every position the game went through, from the end of the game back to its start. A game
+ * that reaches a solved position stops there and takes its result.
+ *
+ * Usage: ResultSolver &lt;input directory or file&gt; &lt;table file&gt; [plies] [depth]
+ * Solves the given boards and every position reachable from them within the given number of
+ * plies, and adds them to the table file.
+ */
+public class ResultSolver {
+
+    //Maximum number of turns in a game, every turn fills at least one cell.
+    private static final int MAX_TURNS = Long.SIZE;
+
+    //Board size.
+    private final int boardSize;
+
+    //Table the results are stored in.
+    private final ResultTable table;
+
+    //Search choosing the moves, with the settings of the table.
+    private final Search search;
+
+    //Positions the current game went through.
+    private final long[]    blackPath  = new long[MAX_TURNS];
+    private final long[]    whitePath  = new long[MAX_TURNS];
+    private final boolean[] playerPath = new boolean[MAX_TURNS];
+
+    //Number of games played.
+    private long games;
+
+    /**
+     * Constructor.
+     *
+     * @param table table the results are stored in
+     */
+    public ResultSolver(ResultTable table) {
+
+        SearchConfig config = new SearchConfig();
+        config.setDepth(table.getDepth());
+
+        this.boardSize = table.getBoardSize();
+        this.table = table;
+        this.search = new Search(config, new TranspositionTable(config.getTableBytes()));
+    }
+
+    /**
+     * Solves a position and every position its game goes through.
+     *
+     * @param node             position
+     * @param maximizingPlayer is black to move
+     * @return winning color
+     */
+    public char solve(Node node, boolean maximizingPlayer) {
+
+        int  turns  = 0;
+        char winner = 0;
+
+        this.games++;
+
+        //Play until the end of the game or a solved position.
+        while (!node.isTerminal()) {
+
+            winner = this.table.lookup(node.getBlack(), node.getWhite(), maximizingPlayer);
+
+            if (winner != 0) {
+                break;
+            }
+
+            this.blackPath[turns] = node.getBlack();
+            this.whitePath[turns] = node.getWhite();
+            this.playerPath[turns] = maximizingPlayer;
+            turns++;
+
+            node = this.search.run(node, maximizingPlayer);
+            maximizingPlayer = node.getColor() != 'B';
+        }
+
+        if (winner == 0) {
+            winner = Game.winner(node);
+        }
+
+        //Every position of the game leads to the same end.
+        for (int i = turns - 1; i >= 0; i--) {
+            this.table.store(this.blackPath[i], this.whitePath[i], this.playerPath[i], winner);
+        }
+
+        return winner;
+    }
+
+    /**
+     * Solves a board with black to move and every position reachable from it within the given plies.
+     *
+     * @param board game board
+     * @param plies number of plies to explore
+     * @return winning color of the board
+     */
+    public char solveAll(char[][] board, int plies) {
+
+        Node node = new Node(board, this.boardSize, 'B');
+
+        solveReachable(node, true, plies);
+
+        return node.isTerminal() ? Game.winner(node) : solve(node, true);
+    }
+
+    /**
+     * Solves every position reachable from a position within the given plies, deepest first.
+     *
+     * @param node             position
+     * @param maximizingPlayer is black to move
+     * @param plies            number of plies to explore
+     */
+    private void solveReachable(Node node, boolean maximizingPlayer, int plies) {
+
+        if (plies == 0 || node.isTerminal()) {
+            return;
+        }
+
+        for (Node child : node.successors(maximizingPlayer)) {
+
+            solveReachable(child, !maximizingPlayer, plies - 1);
+
+            if (!child.isTerminal()) {
+                solve(child, !maximizingPlayer);
+            }
+        }
+    }
+
+    /**
+     * Games getter.
+     *
+     * @return number of games played
+     */
+    public long getGames() {
+        return games;
+    }
+
+    public static void main(String args[]) {
+
+        if (args.length < 2) {
+            System.out.println("Usage: ResultSolver <input directory or file> <table file> [plies] [depth]");
+            return;
+        }
+
+        Path tablePath = Paths.get(args[1]);
+        int  plies     = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int  depth     = args.length > 3 ? Integer.parseInt(args[3]) : Game.MAX_DEPTH;
+
+        try {
+            List<char[][]> boards = BatchSolver.readBoards(Paths.get(args[0]));
+
+            if (boards.isEmpty()) {
+                System.out.println("Error: no boards to solve.");
+                return;
+            }
+
+            //All the boards of a table have the size of the first one.
+            int         boardSize = boards.get(0).length;
+            ResultTable table     = new ResultTable(boardSize, depth);
+
+            //Extend the existing table.
+            if (Files.exists(tablePath)) {
+
+                ResultTable existing = ResultTable.open(tablePath);
+
+                if (existing.getBoardSize() != boardSize || existing.getDepth() != depth) {
+                    System.out.println("Error: the table was solved with other settings.");
+                    return;
+                }
+
+                table.addAll(existing);
+            }
+
+            ResultSolver solver = new ResultSolver(table);
+            long         start  = System.nanoTime();
+
+            for (char[][] board : boards) {
+
+                if (board.length != boardSize) {
+                    System.out.println("Error: the boards must have the same size.");
+                    return;
+                }
+
+                solver.solveAll(board, plies);
+            }
+
+            table.save(tablePath);
+
+            System.out.printf("Played %d games in %.1f s, the table holds %d positions.%n", solver.getGames(),
+                    (System.nanoTime() - start) / 1e9, table.size());
+
+        } catch (IOException e) {
+            System.out.println("Error: table reading or writing error.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class is a table of solved positions, which maps a position to the winner of the game
+ * played from it.
+ * It is an open addressing hash table of two longs per entry. A table built in memory can be
+ * saved to a file, and a saved table is memory-mapped and read in place, so opening it costs
+ * nothing no matter its size.
+ *
+ * The results hold for the search depth the table was solved with, and the table is only used
+ * by games with the same settings.
+ */
+public class ResultTable {
+
+    //Largest board size whose cells fit into an entry next to the result.
+    public static final int MAX_BOARD_SIZE = 7;
+
+    //File header: magic, version, board size and depth, capacity and count.
+    private static final long MAGIC        = 0x4149485732524553L;
+    private static final long VERSION      = 1;
+    private static final int  HEADER_LONGS = 4;
+
+    //Entry layout: the black cells, the player to move, the winner and a valid bit in the first long.
+    private static final int  SIDE_SHIFT   = 56;
+    private static final int  RESULT_SHIFT = 57;
+    private static final long VALID        = 1L << 63;
+    private static final long KEY_MASK     = (1L << RESULT_SHIFT) - 1;
+
+    //Winner codes.
+    private static final int BLACK_WINS = 1;
+    private static final int WHITE_WINS = 2;
+
+    //Board size of the positions.
+    private final int boardSize;
+
+    //Search depth the results were solved with.
+    private final int depth;
+
+    //Is the table memory-mapped from a file.
+    private final boolean mapped;
+
+    //Entries, two longs each.
+    private LongBuffer entries;
+
+    //Number of entries, a power of two.
+    private int capacity;
+
+    //Number of stored positions.
+    private int count;
+
+    /**
+     * Constructor of an empty table in memory.
+     *
+     * @param boardSize board size of the positions
+     * @param depth     search depth the results are solved with
+     */
+    public ResultTable(int boardSize, int depth) {
+
+        this(boardSize, depth, LongBuffer.allocate(2 * 1024), 1024, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param boardSize board size of the positions
+     * @param depth     search depth the results are solved with
+     * @param entries   entries
+     * @param capacity  number of entries
+     * @param mapped    is the table memory-mapped
+     */
+    private ResultTable(int boardSize, int depth, LongBuffer entries, int capacity, boolean mapped) {
+
+        if (boardSize < 1 || boardSize > MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size: " + boardSize);
+        }
+
+        this.boardSize = boardSize;
+        this.depth = depth;
+        this.entries = entries;
+        this.capacity = capacity;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Memory-maps a saved table.
+     *
+     * @param path table file
+     * @return read only table
+     * @throws IOException if the file can't be read or isn't a table
+     */
+    public static ResultTable open(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            LongBuffer       longs  = buffer.asLongBuffer();
+
+            if (longs.limit() < HEADER_LONGS || longs.get(0) != MAGIC || longs.get(1) != VERSION) {
+                throw new IOException("Not a result table: " + path);
+            }
+
+            int boardSize = (int) (longs.get(2) >>> 32);
+            int depth     = (int) longs.get(2);
+            int capacity  = (int) (longs.get(3) >>> 32);
+
+            if (longs.limit() != HEADER_LONGS + 2L * capacity) {
+                throw new IOException("Truncated result table: " + path);
+            }
+
+            LongBuffer  entries = longs.position(HEADER_LONGS).slice();
+            ResultTable table   = new ResultTable(boardSize, depth, entries, capacity, true);
+
+            table.count = (int) longs.get(3);
+
+            return table;
+        }
+    }
+
+    /**
+     * Saves the table to a file.
+     *
+     * @param path table file
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+            buffer.putLong(MAGIC);
+            buffer.putLong(VERSION);
+            buffer.putLong((long) this.boardSize << 32 | this.depth);
+            buffer.putLong((long) this.capacity << 32 | this.count);
+
+            for (int i = 0; i < 2 * this.capacity; i++) {
+
+                if (!buffer.hasRemaining()) {
+                    write(channel, buffer);
+                }
+
+                buffer.putLong(this.entries.get(i));
+            }
+
+            write(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes the content of a buffer and clears it.
+     *
+     * @param channel file channel
+     * @param buffer  buffer
+     * @throws IOException if the file can't be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Checks if the results of the table hold for a game.
+     *
+     * @param boardSize board size of the game
+     * @param config    search settings of the game
+     * @return can the game use the table
+     */
+    public boolean accepts(int boardSize, SearchConfig config) {
+
+        //A budgeted search depends on the timing, and the endgame solver, the Monte Carlo search and
+        //other evaluators play differently, so their results can't be looked up.
+        return boardSize == this.boardSize && config.getDepth() == this.depth
+                && config.getTimeBudgetMillis() == 0 && config.getNodeBudget() == 0
+                && config.getEndgameEmpties() == 0 && config.getAlgorithm() != SearchAlgorithm.MCTS
+                && config.getEvaluator() == null;
+    }
+
+    /**
+     * Looks up the winner of the game played from a position.
+     *
+     * @param black            black cells mask
+     * @param white            white cells mask
+     * @param maximizingPlayer is black to move
+     * @return winning color, or 0 when the position isn't in the table
+     */
+    public char lookup(long black, long white, boolean maximizingPlayer) {
+
+        long key  = key(black, maximizingPlayer);
+        int  mask = this.capacity - 1;
+
+        for (int i = index(key, white) & mask; ; i = (i + 1) & mask) {
+
+            long first = this.entries.get(2 * i);
+
+            if (first == 0) {
+                return 0;
+            }
+
+            if ((first & KEY_MASK) == key && this.entries.get(2 * i + 1) == white) {
+                return (int) (first >>> RESULT_SHIFT & 3) == BLACK_WINS ? 'B' : 'W';
+            }
+        }
+    }
+
+    /**
+     * Stores the winner of the game played from a position.
+     *
+     * @param black            black cells mask
+     * @param white            white cells mask
+     * @param maximizingPlayer is black to move
+     * @param winner           winning color
+     */
+    public void store(long black, long white, boolean maximizingPlayer, char winner) {
+
+        if (this.mapped) {
+            throw new IllegalStateException("A memory-mapped result table is read only");
+        }
+
+        //Keep the table at most half full, so the probes stay short.
+        if (2 * (this.count + 1) > this.capacity) {
+            resize(2 * this.capacity);
+        }
+
+        long key   = key(black, maximizingPlayer);
+        long first = VALID | (long) (winner == 'B' ? BLACK_WINS : WHITE_WINS) << RESULT_SHIFT | key;
+        int  mask  = this.capacity - 1;
+
+        for (int i = index(key, white) & mask; ; i = (i + 1) & mask) {
+
+            long current = this.entries.get(2 * i);
+
+            if (current == 0) {
+
+                this.entries.put(2 * i, first);
+                this.entries.put(2 * i + 1, white);
+                this.count++;
+                return;
+            }
+
+            if ((current & KEY_MASK) == key && this.entries.get(2 * i + 1) == white) {
+
+                this.entries.put(2 * i, first);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copies all the positions of another table into this one.
+     *
+     * @param other table to copy
+     */
+    public void addAll(ResultTable other) {
+
+        for (int i = 0; i < other.capacity; i++) {
+
+            long first = other.entries.get(2 * i);
+
+            if (first != 0) {
+
+                boolean maximizingPlayer = (first >>> SIDE_SHIFT & 1) != 0;
+                char    winner           = (int) (first >>> RESULT_SHIFT & 3) == BLACK_WINS ? 'B' : 'W';
+
+                store(first & ((1L << SIDE_SHIFT) - 1), other.entries.get(2 * i + 1), maximizingPlayer, winner);
+            }
+        }
+    }
+
+    /**
+     * Moves the entries into a larger table.
+     *
+     * @param newCapacity new number of entries
+     */
+    private void resize(int newCapacity) {
+
+        LongBuffer old         = this.entries;
+        int        oldCapacity = this.capacity;
+
+        this.entries = LongBuffer.allocate(2 * newCapacity);
+        this.capacity = newCapacity;
+        this.count = 0;
+
+        int mask = newCapacity - 1;
+
+        for (int i = 0; i < oldCapacity; i++) {
+
+            long first = old.get(2 * i);
+
+            if (first != 0) {
+
+                long white = old.get(2 * i + 1);
+                int  j     = index(first & KEY_MASK, white) & mask;
+
+                while (this.entries.get(2 * j) != 0) {
+                    j = (j + 1) & mask;
+                }
+
+                this.entries.put(2 * j, first);
+                this.entries.put(2 * j + 1, white);
+                this.count++;
+            }
+        }
+    }
+
+    /**
+     * Returns the key of a position, stored in the first long of its entry.
+     *
+     * @param black            black cells mask
+     * @param maximizingPlayer is black to move
+     * @return key
+     */
+    private static long key(long black, boolean maximizingPlayer) {
+        return black | (maximizingPlayer ? 1L << SIDE_SHIFT : 0);
+    }
+
+    /**
+     * Returns the first index to probe for a position.
+     *
+     * @param key   key of the position
+     * @param white white cells mask
+     * @return hash of the position
+     */
+    private static int index(long key, long white) {
+
+        long hash = key * 0x9E3779B97F4A7C15L ^ white;
+
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+
+        return (int) (hash ^ (hash >>> 31));
+    }
+
+    /**
+     * Board size getter.
+     *
+     * @return board size of the positions
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Depth getter.
+     *
+     * @return search depth the results were solved with
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of stored positions.
+     *
+     * @return number of positions
+     */
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class writes the winners of a batch one per line, in the format of BatchSolver.writeResults.
+ * The lines are collected in a single direct buffer and written to the file channel in bulk
+ * whenever it fills, so a corpus of any size costs one write per buffer.
+ */
+public class ResultWriter implements Closeable {
+
+    //Default size of the buffer in bytes.
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    //Bytes of a line: the winner and a line ending.
+    private static final int LINE_BYTES = 2;
+
+    //Open file.
+    private final FileChannel channel;
+
+    //Lines not written yet.
+    private final ByteBuffer buffer;
+
+    //Number of written winners.
+    private long count;
+
+    /**
+     * Constructor.
+     *
+     * @param channel     open file
+     * @param bufferBytes size of the buffer in bytes
+     */
+    private ResultWriter(FileChannel channel, int bufferBytes) {
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(LINE_BYTES, bufferBytes - bufferBytes % LINE_BYTES));
+    }
+
+    /**
+     * Creates or truncates a result file.
+     *
+     * @param path result file
+     * @return writer
+     * @throws IOException if the file can't be opened
+     */
+    public static ResultWriter create(Path path) throws IOException {
+
+        return create(path, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Creates or truncates a result file.
+     *
+     * @param path        result file
+     * @param bufferBytes size of the buffer in bytes
+     * @return writer
+     * @throws IOException if the file can't be opened
+     */
+    public static ResultWriter create(Path path, int bufferBytes) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        return new ResultWriter(channel, bufferBytes);
+    }
+
+    /**
+     * Writes a winner.
+     *
+     * @param winner winning color
+     * @throws IOException if writing fails
+     */
+    public void write(char winner) throws IOException {
+
+        if (this.buffer.remaining() < LINE_BYTES) {
+            flush();
+        }
+
+        this.buffer.put((byte) winner).put((byte) '\n');
+        this.count++;
+    }
+
+    /**
+     * Writes a range of winners.
+     *
+     * @param winners winning colors
+     * @param from    index of the first winner
+     * @param to      index after the last winner
+     * @throws IOException if writing fails
+     */
+    public void write(char[] winners, int from, int to) throws IOException {
+
+        for (int i = from; i < to; i++) {
+            write(winners[i]);
+        }
+    }
+
+    /**
+     * Writes the buffered lines to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+
+        this.buffer.flip();
+
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+
+        this.buffer.clear();
+    }
+
+    /**
+     * Count getter.
+     *
+     * @return number of written winners
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Writes the buffered lines and closes the file.
+     *
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,1048 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * The class performs the alpha-beta tree search of the game.
+ * It keeps the state that is shared between the searched nodes, such as the transposition table.
+ * The search makes and takes back the moves on a single mutable board and records the
+ * principal variation, so the searched nodes are never allocated. The board and the per-ply
+ * state come from the search arena of the thread, so starting a search doesn't allocate them either.
+ *
+ * The search chooses the same node as Minimax: a child replaces the best child when it is
+ * strictly better, or equally good and its move comes first in board order. This keeps
+ * the choice independent of the order in which the children are searched.
+ */
+public class Search {
+
+    //Scores of won and lost positions. They are kept inside the initial window,
+    //so a node whose every child is lost still gets an exact score.
+    private static final int WIN  = Integer.MAX_VALUE - 1;
+    private static final int LOSS = Integer.MIN_VALUE + 1;
+
+    //Maximum distance from the starting node, a move fills at least one cell.
+    static final int MAX_PLY = Long.SIZE + 1;
+
+    //Number of nodes between two budget checks, minus one.
+    private static final int CHECK_INTERVAL = 1023;
+
+    //Search settings.
+    private final SearchConfig config;
+
+    //Transposition table, null when disabled.
+    private final TranspositionTable table;
+
+    //Probe the siblings of the first child with a null window.
+    private final boolean principalVariation;
+
+    //Pool searching the younger siblings in parallel, null for a serial search.
+    private final ForkJoinPool pool;
+
+    //Principal variation of every ply, row ply holds the moves from that ply on.
+    private int[] pv;
+
+    //Principal variation length of every ply.
+    private int[] pvLength;
+
+    //Ordered moves of every ply.
+    private int[] orderedMoves;
+
+    //Arena borrowed by the current search, null between searches.
+    private SearchArena arena;
+
+    //Orders the moves of every node.
+    private final MoveOrdering ordering;
+
+    //Board the search works on.
+    private Board board;
+
+    //Solver of the endgame, created when first needed.
+    private EndgameSolver endgame;
+
+    //Monte Carlo tree search, created when first needed.
+    private MonteCarloSearch monteCarlo;
+
+    //Symmetries that leave the starting node as it is.
+    private int rootSymmetries;
+
+    //Split point the search works for, null for the main search.
+    private ParallelSearch.SplitPoint split;
+
+    //Nodes visited by the current search.
+    private long nodes;
+
+    //Leaves evaluated by the current search.
+    private long leaves;
+
+    //Nodes of the current search cut off by the window.
+    private long cutoffs;
+
+    //Nodes of the current search decided by the transposition table.
+    private long tableCutoffs;
+
+    //Time at which the current search started, in nanoseconds.
+    private long startTime;
+
+    //Statistics of the last search, null before the first one.
+    private SearchStats stats;
+
+    //Flight Recorder event of the current search, begun when the search starts.
+    private SearchMoveEvent moveEvent;
+
+    //Time at which the current search must stop, in nanoseconds.
+    private long deadline;
+
+    //Number of nodes after which the current search must stop.
+    private long nodeLimit;
+
+    //Can the current search be stopped by the budget.
+    private boolean stoppable;
+
+    //Was the current search stopped by the budget.
+    private boolean stopped;
+
+    //Was the search aborted from another thread, for good.
+    private volatile boolean aborted;
+
+    //Searches the expected position of the next move in the background, created when first needed.
+    private Ponderer ponderer;
+
+    //Starting node, moves and player of the last search, null before the first one.
+    private Node lastNode;
+    private int[] lastMoves;
+    private boolean lastMaximizing;
+
+    /**
+     * Constructor.
+     *
+     * @param config search settings
+     * @param table  transposition table, or null
+     */
+    public Search(SearchConfig config, TranspositionTable table) {
+
+        this(config, table, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config search settings
+     * @param table  transposition table, or null
+     * @param pool   pool for the parallel search, or null
+     */
+    public Search(SearchConfig config, TranspositionTable table, ForkJoinPool pool) {
+
+        this.config = config;
+        this.table = table;
+        this.pool = pool;
+        this.principalVariation = config.getAlgorithm() == SearchAlgorithm.PVS;
+        this.ordering = new MoveOrdering(config.getMoveOrder());
+    }
+
+    /**
+     * Searches for the next node according to the settings.
+     * With a time or node budget the search deepens iteratively,
+     * otherwise it searches to the configured depth.
+     *
+     * @param node             starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return next node
+     */
+    public Node run(Node node, boolean maximizingPlayer) {
+
+        //The parallel search must start inside its pool.
+        if (this.pool != null && ForkJoinTask.getPool() != this.pool) {
+            return this.pool.invoke(ForkJoinTask.adapt(() -> run(node, maximizingPlayer)));
+        }
+
+        //The position may have been searched while the opponent was thinking.
+        if (this.ponderer != null) {
+
+            Node pondered = this.ponderer.take(node, maximizingPlayer);
+
+            if (pondered != null) {
+                return takePondered(node, pondered, maximizingPlayer);
+            }
+        }
+
+        if (this.config.getTimeBudgetMillis() == 0 && this.config.getNodeBudget() == 0) {
+            return run(node, this.config.getDepth(), maximizingPlayer);
+        }
+
+        try {
+
+            if (isEndgame(node)) {
+                return solveEndgame(node, maximizingPlayer);
+            }
+
+            if (this.config.getAlgorithm() == SearchAlgorithm.MCTS) {
+                return monteCarlo(node, maximizingPlayer);
+            }
+
+            return iterativeDeepening(node, maximizingPlayer);
+        } finally {
+            giveBackArena();
+        }
+    }
+
+    /**
+     * Searches for the next node to a fixed depth.
+     *
+     * @param node             starting node
+     * @param depth            maximum search depth
+     * @param maximizingPlayer is a maximizing player
+     * @return next node
+     */
+    public Node run(Node node, int depth, boolean maximizingPlayer) {
+
+        //The parallel search must start inside its pool.
+        if (this.pool != null && ForkJoinTask.getPool() != this.pool) {
+            return this.pool.invoke(ForkJoinTask.adapt(() -> run(node, depth, maximizingPlayer)));
+        }
+
+        try {
+
+            if (isEndgame(node)) {
+                return solveEndgame(node, maximizingPlayer);
+            }
+
+            if (this.config.getAlgorithm() == SearchAlgorithm.MCTS) {
+                return monteCarlo(node, maximizingPlayer);
+            }
+
+            startSearch(node, false);
+
+            int score = alphaBeta(depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+
+            return finishSearch(node, principalVariation(), depth, score, maximizingPlayer);
+        } finally {
+            giveBackArena();
+        }
+    }
+
+    /**
+     * Checks if a node is solved exactly instead of searched.
+     *
+     * @param node starting node
+     * @return is in the endgame
+     */
+    private boolean isEndgame(Node node) {
+        return !node.isTerminal() && node.getEmptyCounter() <= this.config.getEndgameEmpties();
+    }
+
+    /**
+     * Solves a node exactly and returns the end of the game under perfect play.
+     *
+     * @param node             starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return last node of the game
+     */
+    private Node solveEndgame(Node node, boolean maximizingPlayer) {
+
+        startSearch(node, false);
+
+        if (this.endgame == null) {
+            this.endgame = new EndgameSolver();
+        }
+
+        int score = this.endgame.solve(this.board, maximizingPlayer);
+
+        this.nodes = this.endgame.getNodes();
+        this.leaves = 0;
+
+        return finishSearch(node, this.endgame.principalVariation(), node.getEmptyCounter(), score, maximizingPlayer);
+    }
+
+    /**
+     * Chooses a move with the Monte Carlo tree search, on the search threads when there are several.
+     *
+     * @param node             starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return node after the chosen move
+     */
+    private Node monteCarlo(Node node, boolean maximizingPlayer) {
+
+        startSearch(node, false);
+
+        if (this.monteCarlo == null) {
+            this.monteCarlo = new MonteCarloSearch(MonteCarloSearch.DEFAULT_CAPACITY);
+        }
+
+        int   move  = this.monteCarlo.run(this.board, maximizingPlayer, this.rootSymmetries, this.config, this.pool,
+                () -> this.aborted);
+        int[] moves = move < 0 ? new int[0] : new int[] {move};
+
+        //The score is the win rate of the chosen move, from -1000 to 1000 for black.
+        int score = 2 * this.monteCarlo.bestWinRate() - 1000;
+
+        this.nodes = this.monteCarlo.getPlayouts();
+        this.leaves = this.nodes;
+
+        Node next  = finishSearch(node, moves, this.monteCarlo.getMaxDepth(), maximizingPlayer ? score : -score,
+                maximizingPlayer);
+        int  reply = this.monteCarlo.expectedReply();
+
+        //The chosen line is the single move, the reply the tree expects to it is only kept for pondering.
+        if (move >= 0 && reply >= 0) {
+            this.lastMoves = new int[] {move, reply};
+        }
+
+        return next;
+    }
+
+    /**
+     * Searches one depth deeper at a time until the budget is spent.
+     * Every iteration starts with a window around the score of the previous one,
+     * and the node of the last completed iteration is returned.
+     *
+     * @param node             starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return next node
+     */
+    private Node iterativeDeepening(Node node, boolean maximizingPlayer) {
+
+        startSearch(node, true);
+
+        //Every move fills at least one cell, so there is no point searching past the empty cells.
+        int maxDepth = Math.max(1, Math.min(this.config.getDepth(), node.getEmptyCounter()));
+
+        //The first iteration always completes, so there is a move to return.
+        SearchIterationEvent event = new SearchIterationEvent();
+        event.begin();
+
+        this.stoppable = false;
+        int   score     = alphaBeta(1, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+        int[] best      = principalVariation();
+        int   bestDepth = 1;
+        this.stoppable = true;
+
+        commitIteration(event, 1, score, false, true);
+
+        for (int depth = 2; depth <= maxDepth; depth++) {
+
+            int     window = this.config.getAspirationWindow();
+            int     result = 0;
+            boolean found  = false;
+            boolean failed = false;
+
+            event = new SearchIterationEvent();
+            event.begin();
+
+            //Try a narrow window first and fall back to the full one when the score is outside of it.
+            if (window > 0 && score > LOSS + window && score < WIN - window) {
+
+                int alpha = score - window;
+                int beta  = score + window;
+
+                result = alphaBeta(depth, 0, alpha, beta, maximizingPlayer);
+                found = result > alpha && result < beta;
+                failed = !found;
+            }
+
+            if (!found && !this.stopped) {
+                result = alphaBeta(depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+            }
+
+            //A stopped iteration may have skipped better moves, so its result is dropped.
+            if (this.stopped) {
+
+                commitIteration(event, depth, result, failed, false);
+                break;
+            }
+
+            score = result;
+            best = principalVariation();
+            bestDepth = depth;
+
+            commitIteration(event, depth, score, failed, true);
+        }
+
+        return finishSearch(node, best, bestDepth, score, maximizingPlayer);
+    }
+
+    /**
+     * Records an iteration of iterative deepening.
+     *
+     * @param event     iteration event, begun before the iteration
+     * @param depth     depth of the iteration
+     * @param score     value of the starting node
+     * @param failed    did the aspiration window fail
+     * @param completed did the iteration complete
+     */
+    private void commitIteration(SearchIterationEvent event, int depth, int score, boolean failed,
+                                 boolean completed) {
+
+        event.end();
+
+        if (event.shouldCommit()) {
+
+            event.depth = depth;
+            event.nodes = this.nodes;
+            event.score = score;
+            event.aspirationFailed = failed;
+            event.completed = completed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the statistics of the search and plays its principal variation.
+     *
+     * @param node             starting node
+     * @param moves            moves of the principal variation
+     * @param depth            deepest completed search depth
+     * @param score            value of the starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return node at the end of the principal variation
+     * @throws IllegalArgumentException if the starting node has no legal moves
+     */
+    private Node finishSearch(Node node, int[] moves, int depth, int score, boolean maximizingPlayer) {
+
+        //An empty board has no legal moves, so there is no next node.
+        if (moves.length == 0 && !node.isTerminal() && node.getFrontier() == 0) {
+            throw new IllegalArgumentException("No legal moves on an empty board");
+        }
+
+        long elapsed = System.nanoTime() - this.startTime;
+        int  move    = moves.length > 0 ? moves[0] : -1;
+
+        this.stats = new SearchStats(this.nodes, this.leaves, this.cutoffs, this.tableCutoffs, depth, score, move,
+                elapsed);
+
+        SearchMoveEvent event = this.moveEvent;
+
+        if (event.shouldCommit()) {
+
+            event.depth = depth;
+            event.nodes = this.nodes;
+            event.leaves = this.leaves;
+            event.cutoffs = this.cutoffs;
+            event.tableCutoffs = this.tableCutoffs;
+            event.score = score;
+            event.move = move;
+            event.nodesPerSecond = this.stats.getNodesPerSecond();
+            event.commit();
+        }
+
+        Consumer<SearchStats> listener = this.config.getStatsListener();
+
+        if (listener != null) {
+            listener.accept(this.stats);
+        }
+
+        this.lastNode = node;
+        this.lastMoves = moves;
+        this.lastMaximizing = maximizingPlayer;
+
+        return principalNode(node, moves, score, maximizingPlayer);
+    }
+
+    /**
+     * Records the result of a background search as the result of the search.
+     *
+     * @param node             starting node
+     * @param pondered         next node found by the background search
+     * @param maximizingPlayer is a maximizing player
+     * @return next node
+     */
+    private Node takePondered(Node node, Node pondered, boolean maximizingPlayer) {
+
+        this.stats = this.ponderer.getStats();
+
+        Consumer<SearchStats> listener = this.config.getStatsListener();
+
+        if (listener != null) {
+            listener.accept(this.stats);
+        }
+
+        this.lastNode = node;
+        this.lastMoves = this.ponderer.getMoves();
+        this.lastMaximizing = maximizingPlayer;
+
+        return pondered;
+    }
+
+    /**
+     * Starts searching, in the background, the position the last search expects after its first move
+     * and the opponent's reply: the first two moves of its principal variation, or the move and the reply
+     * the Monte Carlo tree expects. The next run from that position takes the background result, and a run
+     * from any other position stops the background search. Does nothing unless the settings ask for pondering.
+     */
+    public void ponder() {
+
+        if (!this.config.isPonder() || this.lastMoves == null || this.lastMoves.length < 2) {
+            return;
+        }
+
+        if (this.ponderer == null) {
+            this.ponderer = new Ponderer(this.config, this.table, this.pool);
+        }
+
+        Node expected = this.lastNode.getSuccessor(this.lastMoves[0], this.lastMaximizing)
+                .getSuccessor(this.lastMoves[1], !this.lastMaximizing);
+
+        this.ponderer.start(expected, this.lastMaximizing);
+    }
+
+    /**
+     * Stops the background search, if any.
+     */
+    public void stopPondering() {
+
+        if (this.ponderer != null) {
+            this.ponderer.stop();
+        }
+    }
+
+    /**
+     * Resets the board, the counters and the budget for a new search.
+     *
+     * @param node     starting node
+     * @param budgeted is the search limited by the budget
+     */
+    private void startSearch(Node node, boolean budgeted) {
+
+        if (this.table != null) {
+            this.table.newSearch();
+        }
+
+        if (this.arena == null) {
+            useArena(SearchArena.borrow());
+        }
+
+        //The symmetries only prune when the symmetric variants of a position have the same value.
+        boolean symmetric = isSymmetricEvaluation(node.getBoardSize());
+
+        this.ordering.newSearch();
+        this.board.reset(node, symmetric && this.config.isSymmetricTable() && this.table != null);
+        this.rootSymmetries = symmetric ? Symmetry.stabilizer(node.getBlack(), node.getWhite(), node.getBoardSize())
+                : 1 << Symmetry.IDENTITY;
+        this.nodes = 0;
+        this.leaves = 0;
+        this.cutoffs = 0;
+        this.tableCutoffs = 0;
+        this.startTime = System.nanoTime();
+        this.moveEvent = new SearchMoveEvent();
+        this.moveEvent.begin();
+        this.stopped = false;
+        this.stoppable = false;
+        this.deadline = Long.MAX_VALUE;
+        this.nodeLimit = Long.MAX_VALUE;
+
+        if (budgeted && this.config.getTimeBudgetMillis() > 0) {
+            this.deadline = System.nanoTime() + this.config.getTimeBudgetMillis() * 1_000_000L;
+        }
+
+        if (budgeted && this.config.getNodeBudget() > 0) {
+            this.nodeLimit = this.config.getNodeBudget();
+        }
+    }
+
+    /**
+     * Checks if the leaves of a board size are valued the same under every symmetry. The game's heuristic
+     * is, a pattern evaluator may not be, since its tables and weights are arbitrary.
+     *
+     * @param boardSize board size
+     * @return is the evaluation symmetric
+     */
+    private boolean isSymmetricEvaluation(int boardSize) {
+
+        PatternEvaluator evaluator = this.config.getEvaluator();
+
+        return evaluator == null || evaluator.getBoardSize() != boardSize;
+    }
+
+    /**
+     * Makes the search work on the board and the per-ply state of an arena.
+     *
+     * @param arena arena
+     */
+    private void useArena(SearchArena arena) {
+
+        this.arena = arena;
+        this.board = arena.board;
+        this.pv = arena.pv;
+        this.pvLength = arena.pvLength;
+        this.orderedMoves = arena.orderedMoves;
+    }
+
+    /**
+     * Gives the borrowed arena back once the search is over.
+     */
+    private void giveBackArena() {
+
+        if (this.arena != null) {
+
+            this.arena.giveBack();
+            this.arena = null;
+        }
+    }
+
+    /**
+     * Checks if the budget of the search is spent.
+     *
+     * @return should the search stop
+     */
+    private boolean outOfBudget() {
+
+        if (this.stopped) {
+            return true;
+        }
+
+        if (this.aborted) {
+
+            this.stopped = true;
+            return true;
+        }
+
+        //A sibling refuted the split node, or the budget was spent on another thread.
+        if (this.split != null && this.split.isCancelled()) {
+
+            this.stopped = true;
+            return true;
+        }
+
+        if (!this.stoppable) {
+            return false;
+        }
+
+        if (this.nodes >= this.nodeLimit
+                || ((this.nodes & CHECK_INTERVAL) == 0 && System.nanoTime() >= this.deadline)) {
+
+            this.stopped = true;
+
+            if (this.split != null) {
+                this.split.spendBudget();
+            }
+        }
+
+        return this.stopped;
+    }
+
+    /**
+     * Prepares a search for a younger sibling of a split node, on the thread that searches the sibling.
+     * It shares the settings, the table and the budget of this search, and works on its own copy
+     * of the board in an arena of the thread. The search is kept in the arena and reused for the
+     * next siblings the arena is lent to, so a split allocates no searches once the threads are warm.
+     *
+     * @param split split point of the sibling
+     * @return sibling search, to be released once the sibling is searched
+     */
+    Search fork(ParallelSearch.SplitPoint split) {
+
+        SearchArena arena  = SearchArena.borrow();
+        Search      worker = arena.worker;
+
+        if (worker == null || worker.config != this.config || worker.table != this.table || worker.pool != this.pool) {
+
+            worker = new Search(this.config, this.table, this.pool);
+            arena.worker = worker;
+        }
+
+        worker.useArena(arena);
+        worker.ordering.newSearch();
+        worker.board.copy(this.board);
+        worker.split = split;
+        worker.deadline = this.deadline;
+        worker.nodeLimit = this.nodeLimit;
+        worker.stoppable = this.stoppable;
+        worker.stopped = false;
+        worker.nodes = 0;
+        worker.leaves = 0;
+        worker.cutoffs = 0;
+        worker.tableCutoffs = 0;
+
+        return worker;
+    }
+
+    /**
+     * Adds the counters of a sibling search to its split point and gives back its arena,
+     * so its thread can reuse it for the next sibling.
+     */
+    void release() {
+
+        this.split.addCounters(this.nodes, this.leaves, this.cutoffs, this.tableCutoffs);
+        this.split = null;
+        giveBackArena();
+    }
+
+    /**
+     * Split point getter.
+     *
+     * @return split point the search works for, or null
+     */
+    ParallelSearch.SplitPoint getSplit() {
+        return split;
+    }
+
+    /**
+     * Nodes getter.
+     *
+     * @return nodes visited by the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the principal variation of the last search.
+     *
+     * @return moves of the principal variation, or null before the first search
+     */
+    int[] getLastMoves() {
+        return lastMoves;
+    }
+
+    /**
+     * Statistics getter.
+     *
+     * @return statistics of the last search, or null
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Adds the counters of the sibling searches of a split point.
+     *
+     * @param point split point whose siblings are searched
+     */
+    void addCounters(ParallelSearch.SplitPoint point) {
+
+        this.nodes += point.getNodes();
+        this.leaves += point.getLeaves();
+        this.cutoffs += point.getCutoffs();
+        this.tableCutoffs += point.getTableCutoffs();
+    }
+
+    /**
+     * Stops the search, its current result is dropped.
+     */
+    void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Aborts the search from another thread. The alpha-beta search stops as soon as it checks
+     * its budget and the Monte Carlo search before its next game. The result is dropped, and
+     * the search stays aborted until it is resumed.
+     */
+    void abort() {
+        this.aborted = true;
+    }
+
+    /**
+     * Lets an aborted search run again, once its aborted run has returned.
+     */
+    void resume() {
+        this.aborted = false;
+    }
+
+    /**
+     * Checks if the search was stopped.
+     *
+     * @return is stopped
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Returns a copy of the principal variation of a ply.
+     *
+     * @param ply distance from the starting node
+     * @return moves of the principal variation
+     */
+    int[] principalVariation(int ply) {
+        return Arrays.copyOfRange(this.pv, ply * MAX_PLY, ply * MAX_PLY + this.pvLength[ply]);
+    }
+
+    /**
+     * Returns a copy of the principal variation of the starting node.
+     *
+     * @return moves of the principal variation
+     */
+    private int[] principalVariation() {
+        return principalVariation(0);
+    }
+
+    /**
+     * Replaces the principal variation of a ply.
+     *
+     * @param ply   distance from the starting node
+     * @param moves moves of the principal variation
+     */
+    void setPrincipalVariation(int ply, int[] moves) {
+
+        System.arraycopy(moves, 0, this.pv, ply * MAX_PLY, moves.length);
+        this.pvLength[ply] = moves.length;
+    }
+
+    /**
+     * Checks if the younger siblings of a node should be searched in parallel.
+     *
+     * @param depth remaining search depth of the node
+     * @param moves remaining moves of the node
+     * @return should split
+     */
+    private boolean canSplit(int depth, long moves) {
+        return this.pool != null && depth >= this.config.getSplitDepth() && moves != 0;
+    }
+
+    /**
+     * Performs the Minimax algorithm with alpha-beta pruning on the board.
+     *
+     * @param depth            remaining search depth
+     * @param ply              distance from the starting node
+     * @param alpha            value the maximizing player is already assured of
+     * @param beta             value the minimizing player is already assured of
+     * @param maximizingPlayer is a maximizing player
+     * @return value of the node, a bound when it falls outside the window
+     */
+    private int alphaBeta(int depth, int ply, int alpha, int beta, boolean maximizingPlayer) {
+
+        this.nodes++;
+        this.pvLength[ply] = 0;
+
+        //Check if can't search any further.
+        if (depth == 0 || this.board.isTerminal()) {
+
+            this.leaves++;
+            return evaluate(this.board);
+        }
+
+        //The symmetric variants of a position share their entry, which is kept in the representative's cells.
+        int  boardSize = this.board.getBoardSize();
+        int  symmetry  = this.board.canonicalSymmetry();
+        long key       = this.board.getHash(symmetry) ^ (maximizingPlayer ? Zobrist.BLACK_TO_MOVE : 0);
+        int  hashMove  = -1;
+
+        //Look for a result of the same position at the same depth.
+        if (this.table != null) {
+
+            long entry = this.table.probe(key);
+
+            if (entry != 0) {
+
+                hashMove = TranspositionTable.move(entry);
+
+                if (hashMove >= 0) {
+                    hashMove = Symmetry.square(hashMove, Symmetry.inverse(symmetry), boardSize);
+                }
+
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+
+                //A stored bound outside the window decides the node without searching it.
+                if (ply > 0 && TranspositionTable.depth(entry) == depth
+                        && ((bound != TranspositionTable.UPPER && score >= beta)
+                        || (bound != TranspositionTable.LOWER && score <= alpha))) {
+
+                    this.tableCutoffs++;
+                    return score;
+                }
+            }
+        }
+
+        long moves     = this.board.legalMoves();
+        int  alphaOrig = alpha;
+        int  betaOrig  = beta;
+        int  bestValue = maximizingPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int  bestMove  = -1;
+
+        //Symmetric moves of a symmetric starting node have the same value, and the first one is chosen anyway.
+        if (ply == 0 && this.rootSymmetries != 1) {
+            moves = Symmetry.uniqueMoves(moves, this.rootSymmetries, boardSize);
+        }
+
+        int count = this.ordering.order(this.board, moves, hashMove, ply, maximizingPlayer, this.orderedMoves,
+                ply * Long.SIZE);
+
+        for (int i = 0; i < count; i++) {
+
+            int move = this.orderedMoves[ply * Long.SIZE + i];
+
+            moves &= ~(1L << move);
+
+            //An equal value is enough for a move that comes earlier than the best one.
+            boolean first   = bestMove < 0;
+            boolean earlier = !first && move < bestMove;
+            int     low     = alpha;
+            int     high    = beta;
+
+            if (earlier && maximizingPlayer && bestValue > alphaOrig) {
+                low = bestValue - 1;
+            } else if (earlier && !maximizingPlayer && bestValue < betaOrig) {
+                high = bestValue + 1;
+            }
+
+            int value = searchChild(move, depth, ply, low, high, !maximizingPlayer, first);
+
+            boolean better = maximizingPlayer ? value > bestValue : value < bestValue;
+
+            if (first || better || (value == bestValue && earlier)) {
+
+                bestValue = value;
+                bestMove = move;
+                updatePrincipalVariation(ply, move);
+            }
+
+            if (maximizingPlayer) {
+                alpha = Math.max(alpha, bestValue);
+            } else {
+                beta = Math.min(beta, bestValue);
+            }
+
+            //The other player will avoid this node.
+            if (alpha >= beta) {
+
+                this.cutoffs++;
+                this.ordering.cutoff(move, ply, depth, maximizingPlayer);
+                break;
+            }
+
+            if (outOfBudget()) {
+                break;
+            }
+
+            //Search the younger siblings in parallel once the eldest one is done.
+            if (first && canSplit(depth, moves)) {
+
+                ParallelSearch.SplitPoint point = ParallelSearch.split(this, moves, depth, ply, alphaOrig, betaOrig,
+                        maximizingPlayer, bestValue, bestMove, principalVariation(ply));
+
+                bestValue = point.getBestValue();
+                bestMove = point.getBestMove();
+                setPrincipalVariation(ply, point.getBestVariation());
+                break;
+            }
+        }
+
+        //The result of a stopped search is incomplete, so it isn't stored.
+        if (this.table != null && !this.stopped) {
+
+            int bound = TranspositionTable.EXACT;
+
+            if (bestValue <= alphaOrig) {
+                bound = TranspositionTable.UPPER;
+            } else if (bestValue >= betaOrig) {
+                bound = TranspositionTable.LOWER;
+            }
+
+            int storedMove = bestMove >= 0 ? Symmetry.square(bestMove, symmetry, boardSize) : -1;
+
+            this.table.store(key, depth, bound, bestValue, storedMove);
+        }
+
+        return bestValue;
+    }
+
+    /**
+     * Searches a child within the given window.
+     * With principal variation search, every child except the first is probed with a null
+     * window first, and searched again with the full window only if it may be better.
+     *
+     * @param move             cell index of the move leading to the child
+     * @param depth            remaining search depth of the parent
+     * @param ply              distance of the parent from the starting node
+     * @param alpha            window lower bound
+     * @param beta             window upper bound
+     * @param maximizingPlayer is the child a maximizing player
+     * @param first            is the first searched child
+     * @return value of the child
+     */
+    int searchChild(int move, int depth, int ply, int alpha, int beta, boolean maximizingPlayer, boolean first) {
+
+        //The parent of a maximizing child is minimizing, so black is the one moving into a minimizing child.
+        this.board.makeMove(move, !maximizingPlayer);
+
+        int value;
+
+        if (!this.principalVariation || first) {
+
+            value = alphaBeta(depth - 1, ply + 1, alpha, beta, maximizingPlayer);
+        } else {
+
+            if (maximizingPlayer) {
+                value = alphaBeta(depth - 1, ply + 1, beta - 1, beta, true);
+            } else {
+                value = alphaBeta(depth - 1, ply + 1, alpha, alpha + 1, false);
+            }
+
+            if (value > alpha && value < beta) {
+                value = alphaBeta(depth - 1, ply + 1, alpha, beta, maximizingPlayer);
+            }
+        }
+
+        this.board.undoMove();
+
+        return value;
+    }
+
+    /**
+     * Makes the move followed by the principal variation of the next ply the principal variation of a ply.
+     *
+     * @param ply  distance from the starting node
+     * @param move cell index of the move
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+
+        int row    = ply * MAX_PLY;
+        int length = this.pvLength[ply + 1];
+
+        this.pv[row] = move;
+        System.arraycopy(this.pv, row + MAX_PLY, this.pv, row + 1, length);
+        this.pvLength[ply] = length + 1;
+    }
+
+    /**
+     * Plays a principal variation from the starting node.
+     *
+     * @param node             starting node
+     * @param moves            moves of the principal variation
+     * @param score            value of the starting node
+     * @param maximizingPlayer is a maximizing player
+     * @return node at the end of the principal variation
+     */
+    private static Node principalNode(Node node, int[] moves, int score, boolean maximizingPlayer) {
+
+        for (int move : moves) {
+
+            node = node.getSuccessor(move, maximizingPlayer);
+            maximizingPlayer = !maximizingPlayer;
+        }
+
+        node.setCost(score);
+
+        return node;
+    }
+
+    /**
+     * Returns the heuristic value of a board, with wins and losses moved inside the window.
+     * The configured pattern evaluator values the boards of its size that aren't full.
+     *
+     * @param board board
+     * @return heuristic value
+     */
+    private int evaluate(Board board) {
+
+        PatternEvaluator evaluator = this.config.getEvaluator();
+
+        if (evaluator != null && evaluator.getBoardSize() == board.getBoardSize() && !board.isTerminal()) {
+            return evaluator.evaluate(board.getBlack(), board.getWhite());
+        }
+
+        int value = Game.heuristic(board.getBlack(), board.getWhite(), board.getBoardSize());
+
+        if (value == Integer.MAX_VALUE) {
+            return WIN;
+        }
+
+        if (value == Integer.MIN_VALUE) {
+            return LOSS;
+        }
+
+        return value;
+    }
+}
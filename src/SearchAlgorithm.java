@@ -0,0 +1,19 @@
+/**
+ * The enum lists the tree search algorithms the game can use.
+ */
+public enum SearchAlgorithm {
+
+    //Plain Minimax, every successor is expanded to the maximum depth.
+    MINIMAX,
+
+    //Minimax with alpha-beta pruning.
+    ALPHA_BETA,
+
+    //Principal variation search: alpha-beta where the siblings of the first
+    //child are probed with a null window and re-searched only if they improve.
+    PVS,
+
+    //Monte Carlo tree search: the moves are valued by random games instead of the heuristic,
+    //and the budgets limit the number of games instead of the depth.
+    MCTS
+}
@@ -0,0 +1,66 @@
+/**
+ * The class holds the preallocated per-ply state of a search: the board it makes and takes
+ * back the moves on, the principal variations and the ordered moves of every ply.
+ * Every thread keeps an arena that the searches running on it borrow, so starting a search,
+ * or creating one for every game of a batch, allocates nothing per node and almost nothing per move.
+ *
+ * A search borrowing an arena while the thread's arena is lent, like a sibling of a parallel
+ * search run by the thread that waits for it, gets the next arena of the thread, created the
+ * first time it is needed and kept afterwards.
+ */
+public class SearchArena {
+
+    //Arena of every thread.
+    private static final ThreadLocal<SearchArena> ARENAS = ThreadLocal.withInitial(SearchArena::new);
+
+    //Board the search works on.
+    final Board board = new Board();
+
+    //Principal variation of every ply, row ply holds the moves from that ply on.
+    final int[] pv = new int[Search.MAX_PLY * Search.MAX_PLY];
+
+    //Principal variation length of every ply.
+    final int[] pvLength = new int[Search.MAX_PLY];
+
+    //Ordered moves of every ply.
+    final int[] orderedMoves = new int[Search.MAX_PLY * Long.SIZE];
+
+    //Search of the younger siblings of a parallel search that works in the arena, null before the first one.
+    Search worker;
+
+    //Is the arena lent to a search.
+    private boolean lent;
+
+    //Next arena of the thread, null until two arenas are lent at the same time.
+    private SearchArena next;
+
+    /**
+     * Borrows the first arena of the current thread that isn't lent.
+     *
+     * @return arena, to be given back when the search ends
+     */
+    static SearchArena borrow() {
+
+        SearchArena arena = ARENAS.get();
+
+        while (arena.lent) {
+
+            if (arena.next == null) {
+                arena.next = new SearchArena();
+            }
+
+            arena = arena.next;
+        }
+
+        arena.lent = true;
+
+        return arena;
+    }
+
+    /**
+     * Gives the arena back, its state must not be used afterwards.
+     */
+    void giveBack() {
+        this.lent = false;
+    }
+}
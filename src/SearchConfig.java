@@ -0,0 +1,344 @@
+import java.util.EnumSet;
+import java.util.function.Consumer;
+
+/**
+ * The class holds the settings of the game's tree search.
+ */
+public class SearchConfig {
+
+    //Default memory of the transposition table in bytes.
+    public static final long DEFAULT_TABLE_BYTES = 1L << 16;
+
+    //Default half width of the aspiration window.
+    public static final int DEFAULT_ASPIRATION_WINDOW = 2;
+
+    //Default minimum remaining depth of a node whose children are searched in parallel.
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    //Search algorithm.
+    private SearchAlgorithm algorithm = SearchAlgorithm.PVS;
+
+    //Maximum search depth. With a budget, the deepest iteration allowed.
+    private int depth = Game.MAX_DEPTH;
+
+    //Time budget per move in milliseconds, 0 for none.
+    private long timeBudgetMillis;
+
+    //Node budget per move, 0 for none.
+    private long nodeBudget;
+
+    //Half width of the aspiration window of iterative deepening, 0 disables it.
+    private int aspirationWindow = DEFAULT_ASPIRATION_WINDOW;
+
+    //Number of search threads, 1 for a serial search.
+    private int threads = 1;
+
+    //Minimum remaining depth of a node whose children are searched in parallel.
+    private int splitDepth = DEFAULT_SPLIT_DEPTH;
+
+    //Memory of the transposition table in bytes, 0 disables the table.
+    private long tableBytes = DEFAULT_TABLE_BYTES;
+
+    //Share the transposition table entries of symmetric positions. Hashing the 8 symmetric variants
+    //costs more than it saves unless the positions are often symmetric.
+    private boolean symmetricTable;
+
+    //Number of empty cells at which the search is replaced by an exact solve to the end of the game, 0 for never.
+    private int endgameEmpties;
+
+    //Move ordering techniques of the search.
+    private EnumSet<MoveOrder> moveOrder = EnumSet.allOf(MoveOrder.class);
+
+    //Evaluates the leaves with line patterns, null for the game's heuristic.
+    private PatternEvaluator evaluator;
+
+    //Search the expected position of the next move while the opponent is thinking.
+    private boolean ponder;
+
+    //Receives the statistics of every searched move, null for none.
+    private Consumer<SearchStats> statsListener;
+
+    /**
+     * Returns a copy of the settings.
+     *
+     * @return settings
+     */
+    public SearchConfig copy() {
+
+        SearchConfig copy = new SearchConfig();
+
+        copy.algorithm = this.algorithm;
+        copy.depth = this.depth;
+        copy.timeBudgetMillis = this.timeBudgetMillis;
+        copy.nodeBudget = this.nodeBudget;
+        copy.aspirationWindow = this.aspirationWindow;
+        copy.threads = this.threads;
+        copy.splitDepth = this.splitDepth;
+        copy.tableBytes = this.tableBytes;
+        copy.symmetricTable = this.symmetricTable;
+        copy.endgameEmpties = this.endgameEmpties;
+        copy.moveOrder = EnumSet.copyOf(this.moveOrder);
+        copy.evaluator = this.evaluator;
+        copy.ponder = this.ponder;
+        copy.statsListener = this.statsListener;
+
+        return copy;
+    }
+
+    /**
+     * Algorithm getter.
+     *
+     * @return search algorithm
+     */
+    public SearchAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Algorithm setter.
+     *
+     * @param algorithm search algorithm
+     */
+    public void setAlgorithm(SearchAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Depth getter.
+     *
+     * @return maximum search depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Depth setter.
+     *
+     * @param depth maximum search depth
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Transposition table memory getter.
+     *
+     * @return memory in bytes, 0 when the table is disabled
+     */
+    public long getTableBytes() {
+        return tableBytes;
+    }
+
+    /**
+     * Transposition table memory setter.
+     *
+     * @param tableBytes memory in bytes, 0 disables the table
+     */
+    public void setTableBytes(long tableBytes) {
+        this.tableBytes = tableBytes;
+    }
+
+    /**
+     * Time budget getter.
+     *
+     * @return time budget per move in milliseconds, 0 for none
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Time budget setter.
+     * A budget makes the search deepen iteratively up to the maximum depth.
+     *
+     * @param timeBudgetMillis time budget per move in milliseconds, 0 for none
+     */
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Node budget getter.
+     *
+     * @return node budget per move, 0 for none
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * Node budget setter.
+     * A budget makes the search deepen iteratively up to the maximum depth.
+     *
+     * @param nodeBudget node budget per move, 0 for none
+     */
+    public void setNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * Aspiration window getter.
+     *
+     * @return half width of the aspiration window, 0 when disabled
+     */
+    public int getAspirationWindow() {
+        return aspirationWindow;
+    }
+
+    /**
+     * Aspiration window setter.
+     *
+     * @param aspirationWindow half width of the aspiration window, 0 disables it
+     */
+    public void setAspirationWindow(int aspirationWindow) {
+        this.aspirationWindow = aspirationWindow;
+    }
+
+    /**
+     * Threads getter.
+     *
+     * @return number of search threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Threads setter.
+     *
+     * @param threads number of search threads, 1 for a serial search
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Split depth getter.
+     *
+     * @return minimum remaining depth of a node whose children are searched in parallel
+     */
+    public int getSplitDepth() {
+        return splitDepth;
+    }
+
+    /**
+     * Split depth setter.
+     *
+     * @param splitDepth minimum remaining depth of a node whose children are searched in parallel
+     */
+    public void setSplitDepth(int splitDepth) {
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Symmetric table getter.
+     *
+     * @return do symmetric positions share their table entry
+     */
+    public boolean isSymmetricTable() {
+        return symmetricTable;
+    }
+
+    /**
+     * Symmetric table setter.
+     *
+     * @param symmetricTable do symmetric positions share their table entry
+     */
+    public void setSymmetricTable(boolean symmetricTable) {
+        this.symmetricTable = symmetricTable;
+    }
+
+    /**
+     * Endgame empties getter.
+     *
+     * @return number of empty cells at which the game is solved exactly, 0 for never
+     */
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    /**
+     * Endgame empties setter.
+     * The exact solver plays perfectly, so the game may end differently than with the heuristic search.
+     *
+     * @param endgameEmpties number of empty cells at which the game is solved exactly, 0 for never
+     */
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /**
+     * Move order getter.
+     *
+     * @return move ordering techniques
+     */
+    public EnumSet<MoveOrder> getMoveOrder() {
+        return moveOrder;
+    }
+
+    /**
+     * Move order setter.
+     *
+     * @param moveOrder move ordering techniques
+     */
+    public void setMoveOrder(EnumSet<MoveOrder> moveOrder) {
+        this.moveOrder = moveOrder;
+    }
+
+    /**
+     * Evaluator getter.
+     *
+     * @return pattern evaluator of the leaves, or null for the game's heuristic
+     */
+    public PatternEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Evaluator setter. The evaluator is only used on boards of its size.
+     *
+     * @param evaluator pattern evaluator of the leaves, or null for the game's heuristic
+     */
+    public void setEvaluator(PatternEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Ponder getter.
+     *
+     * @return search the expected position of the next move while the opponent is thinking
+     */
+    public boolean isPonder() {
+        return ponder;
+    }
+
+    /**
+     * Ponder setter. Pondering pays off when a search plays single moves against another player,
+     * see Search.ponder.
+     *
+     * @param ponder search the expected position of the next move while the opponent is thinking
+     */
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+    }
+
+    /**
+     * Statistics listener getter.
+     *
+     * @return receiver of the statistics of every searched move, or null
+     */
+    public Consumer<SearchStats> getStatsListener() {
+        return statsListener;
+    }
+
+    /**
+     * Statistics listener setter.
+     * It isn't called by the games played with MINIMAX, which don't run a Search.
+     *
+     * @param statsListener receiver of the statistics of every searched move, or null
+     */
+    public void setStatsListener(Consumer<SearchStats> statsListener) {
+        this.statsListener = statsListener;
+    }
+}
@@ -0,0 +1,30 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The class is a Flight Recorder event of a single iteration of iterative deepening.
+ */
+@Name("aihw2.SearchIteration")
+@Label("Search Iteration")
+@Category({"AI HW2", "Search"})
+@Description("Search of a single depth during iterative deepening")
+public class SearchIterationEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Score")
+    int score;
+
+    @Label("Aspiration Failed")
+    boolean aspirationFailed;
+
+    @Label("Completed")
+    boolean completed;
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The class is a Flight Recorder event of a search for a single move.
+ */
+@Name("aihw2.SearchMove")
+@Label("Search Move")
+@Category({"AI HW2", "Search"})
+@Description("Search for a single move of the game")
+public class SearchMoveEvent extends Event {
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Leaves")
+    long leaves;
+
+    @Label("Cutoffs")
+    long cutoffs;
+
+    @Label("Table Cutoffs")
+    long tableCutoffs;
+
+    @Label("Score")
+    int score;
+
+    @Label("Move")
+    int move;
+
+    @Label("Nodes Per Second")
+    double nodesPerSecond;
+}
@@ -0,0 +1,154 @@
+/**
+ * The class holds the statistics of a single search, one move of the game.
+ */
+public class SearchStats {
+
+    //Nodes visited.
+    private final long nodes;
+
+    //Leaves evaluated by the heuristic.
+    private final long leaves;
+
+    //Nodes cut off by the alpha-beta window.
+    private final long cutoffs;
+
+    //Nodes decided by the transposition table.
+    private final long tableCutoffs;
+
+    //Deepest completed search depth.
+    private final int depth;
+
+    //Value of the chosen move.
+    private final int score;
+
+    //Cell index of the chosen move, or -1.
+    private final int move;
+
+    //Time of the search in nanoseconds.
+    private final long elapsedNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param nodes        nodes visited
+     * @param leaves       leaves evaluated
+     * @param cutoffs      nodes cut off by the window
+     * @param tableCutoffs nodes decided by the transposition table
+     * @param depth        deepest completed search depth
+     * @param score        value of the chosen move
+     * @param move         cell index of the chosen move, or -1
+     * @param elapsedNanos time of the search in nanoseconds
+     */
+    public SearchStats(long nodes, long leaves, long cutoffs, long tableCutoffs, int depth, int score, int move,
+                       long elapsedNanos) {
+
+        this.nodes = nodes;
+        this.leaves = leaves;
+        this.cutoffs = cutoffs;
+        this.tableCutoffs = tableCutoffs;
+        this.depth = depth;
+        this.score = score;
+        this.move = move;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Nodes getter.
+     *
+     * @return nodes visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Leaves getter.
+     *
+     * @return leaves evaluated by the heuristic
+     */
+    public long getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Cutoffs getter.
+     *
+     * @return nodes cut off by the alpha-beta window
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Table cutoffs getter.
+     *
+     * @return nodes decided by the transposition table
+     */
+    public long getTableCutoffs() {
+        return tableCutoffs;
+    }
+
+    /**
+     * Depth getter.
+     *
+     * @return deepest completed search depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Score getter.
+     *
+     * @return value of the chosen move
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Move getter.
+     *
+     * @return cell index of the chosen move, or -1
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Elapsed time getter.
+     *
+     * @return time of the search in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the search speed.
+     *
+     * @return nodes per second
+     */
+    public double getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodes * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * Returns the effective branching factor, the branching of a uniform tree
+     * of the same depth with the same number of nodes.
+     *
+     * @return effective branching factor
+     */
+    public double getEffectiveBranchingFactor() {
+        return this.depth == 0 ? 0 : Math.pow(this.nodes, 1.0 / this.depth);
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("depth %d, score %d, move %d, nodes %d, leaves %d, cutoffs %d, table cutoffs %d, "
+                        + "ebf %.2f, %.0f nodes/s, %.3f ms",
+                this.depth, this.score, this.move, this.nodes, this.leaves, this.cutoffs, this.tableCutoffs,
+                getEffectiveBranchingFactor(), getNodesPerSecond(), this.elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,370 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The class is a resident server answering board requests, so the process starts once and
+ * the compiled code and the loaded tables stay warm between the requests.
+ *
+ * Requests are single lines, with the board rows separated by '/':
+ * PLAY &lt;board&gt;          answers the winner of the game, B or W
+ * MOVE &lt;board&gt; &lt;color&gt;  answers the row and column of the best move of the color
+ * PING                  answers PONG
+ * QUIT                  ends the connection, or the server when reading the standard input
+ * A bad request is answered with ERROR and a message.
+ *
+ * Every request runs on its own thread, a virtual thread when the runtime has them.
+ */
+public class Server {
+
+    //Search settings of the requests.
+    private final SearchConfig config;
+
+    //Runs the requests.
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param config search settings of the requests
+     */
+    public Server(SearchConfig config) {
+
+        this.config = config;
+        this.executor = newExecutor();
+    }
+
+    /**
+     * Creates an executor with a virtual thread per task when the runtime has virtual threads,
+     * and a cached pool of platform threads otherwise.
+     *
+     * @return executor
+     */
+    private static ExecutorService newExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Answers a single request.
+     *
+     * @param request request line
+     * @return answer line, or null to end the connection
+     */
+    public String handle(String request) {
+
+        String[] parts = request.trim().split("\\s+");
+
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "PLAY":
+                    expectArguments(parts, 2);
+                    return String.valueOf(Game.play(parseBoard(parts[1]), this.config));
+                case "MOVE":
+                    expectArguments(parts, 3);
+                    return bestMove(parseBoard(parts[1]), parseColor(parts[2]));
+                case "PING":
+                    return "PONG";
+                case "QUIT":
+                    return null;
+                default:
+                    return "ERROR unknown request: " + parts[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERROR " + e.getMessage();
+        } catch (RuntimeException e) {
+            return "ERROR " + failure(e);
+        }
+    }
+
+    /**
+     * Describes a failed request, and writes its stack trace to the error output,
+     * since the standard output may be the protocol channel.
+     *
+     * @param e failure of the request
+     * @return message of the failure
+     */
+    private static String failure(Throwable e) {
+
+        e.printStackTrace();
+
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Finds the best move of a player.
+     *
+     * @param board game board
+     * @param color color of the player
+     * @return row and column of the move, or NONE when there is no legal move
+     */
+    private String bestMove(char[][] board, char color) {
+
+        int boardSize = board.length;
+
+        if (boardSize > Bitboard.MAX_BOARD_SIZE) {
+            throw new IllegalArgumentException("best moves need a board of at most " + Bitboard.MAX_BOARD_SIZE
+                    + " rows");
+        }
+
+        //The node's color is the one of the player who moved last.
+        Node node = new Node(board, boardSize, color == 'B' ? 'W' : 'B');
+
+        if (node.isTerminal() || node.getFrontier() == 0) {
+            return "NONE";
+        }
+
+        Search search = new Search(this.config, new TranspositionTable(this.config.getTableBytes()));
+        search.run(node, color == 'B');
+
+        int move = search.getStats().getMove();
+
+        return (move / boardSize) + " " + (move % boardSize);
+    }
+
+    /**
+     * Parses a board whose rows are separated by '/'.
+     *
+     * @param text board text
+     * @return game board
+     */
+    private static char[][] parseBoard(String text) {
+
+        String[] rows  = text.split("/");
+        char[][] board = new char[rows.length][];
+
+        for (int row = 0; row < rows.length; row++) {
+
+            if (rows[row].length() != rows.length) {
+                throw new IllegalArgumentException("the board must be square");
+            }
+
+            board[row] = rows[row].toCharArray();
+
+            for (char cell : board[row]) {
+
+                if (cell != 'B' && cell != 'W' && cell != 'E') {
+                    throw new IllegalArgumentException("unknown cell: " + cell);
+                }
+            }
+        }
+
+        return board;
+    }
+
+    /**
+     * Parses a player's color.
+     *
+     * @param text color text
+     * @return B or W
+     */
+    private static char parseColor(String text) {
+
+        if (!text.equals("B") && !text.equals("W")) {
+            throw new IllegalArgumentException("unknown color: " + text);
+        }
+
+        return text.charAt(0);
+    }
+
+    /**
+     * Checks the number of parts of a request.
+     *
+     * @param parts request parts
+     * @param count expected number of parts
+     */
+    private static void expectArguments(String[] parts, int count) {
+
+        if (parts.length != count) {
+            throw new IllegalArgumentException(parts[0] + " takes " + (count - 1) + " arguments");
+        }
+    }
+
+    /**
+     * Serves the requests of the standard input until it ends or a QUIT request.
+     * The requests run concurrently and are answered in their order.
+     *
+     * @throws IOException if reading fails
+     */
+    public void serveStandardInput() throws IOException {
+
+        BufferedReader                reader  = new BufferedReader(new InputStreamReader(System.in,
+                StandardCharsets.UTF_8));
+        PrintWriter                   writer  = new PrintWriter(System.out, true);
+        BlockingQueue<Future<String>> answers = new LinkedBlockingQueue<>();
+
+        //Write the answers in the order of the requests.
+        Thread printer = new Thread(() -> printAnswers(answers, writer), "server-printer");
+        printer.start();
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                String request = line;
+
+                answers.add(this.executor.submit(() -> handle(request)));
+
+                if (request.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+            }
+        } finally {
+
+            //An answer without a request ends the printer.
+            answers.add(this.executor.submit(() -> (String) null));
+            joinQuietly(printer);
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * Writes the answers as they complete, in their order, until a null answer.
+     * A failed request is answered with ERROR and the following answers are still written.
+     *
+     * @param answers answers in the order of the requests
+     * @param writer  output
+     */
+    private static void printAnswers(BlockingQueue<Future<String>> answers, PrintWriter writer) {
+
+        try {
+            while (true) {
+
+                String answer;
+
+                try {
+                    answer = answers.take().get();
+                } catch (ExecutionException e) {
+                    answer = "ERROR " + failure(e.getCause());
+                }
+
+                if (answer == null) {
+                    return;
+                }
+
+                writer.println(answer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for a thread to end.
+     *
+     * @param thread thread
+     */
+    private static void joinQuietly(Thread thread) {
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serves connections on a local TCP port or a Unix domain socket, until the process ends.
+     * Every connection runs on its own thread.
+     *
+     * @param address "unix:" followed by a socket path, or a TCP port on the loopback address
+     * @throws IOException if the socket can't be opened
+     */
+    public void serveSocket(String address) throws IOException {
+
+        SocketAddress       socketAddress;
+        ServerSocketChannel server;
+
+        if (address.startsWith("unix:")) {
+
+            Path path = Path.of(address.substring("unix:".length()));
+
+            Files.deleteIfExists(path);
+            socketAddress = UnixDomainSocketAddress.of(path);
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+
+            socketAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+            server = ServerSocketChannel.open();
+        }
+
+        try (ServerSocketChannel channel = server) {
+
+            channel.bind(socketAddress);
+            System.out.println("Listening on " + channel.getLocalAddress());
+
+            while (true) {
+
+                SocketChannel connection = channel.accept();
+                this.executor.execute(() -> serveConnection(connection));
+            }
+        } finally {
+            this.executor.shutdown();
+        }
+    }
+
+    /**
+     * Answers the requests of a connection one by one, until it ends or a QUIT request.
+     *
+     * @param connection connection
+     */
+    private void serveConnection(SocketChannel connection) {
+
+        try (SocketChannel channel = connection;
+             Reader input = Channels.newReader(channel, StandardCharsets.UTF_8);
+             Writer output = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+
+            BufferedReader reader = new BufferedReader(input);
+            String         line;
+
+            while ((line = reader.readLine()) != null) {
+
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                String answer = handle(line);
+
+                if (answer == null) {
+                    return;
+                }
+
+                output.write(answer);
+                output.write('\n');
+                output.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Error: connection reading or writing error.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The class measures the speedup of the parallel search.
+ * It searches a fixed set of random positions with 1 to N threads,
+ * checks that every thread count chooses the same nodes and prints the timings.
+ *
+ * Usage: SpeedupReport [depth] [max threads] [positions]
+ */
+public class SpeedupReport {
+
+    //Seed of the random positions.
+    private static final long SEED = 20171017L;
+
+    //Board size.
+    private static final int BOARD_SIZE = 5;
+
+    public static void main(String args[]) {
+
+        int depth      = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int positions  = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Node[] nodes      = randomPositions(positions);
+        Node[] expected   = null;
+        double serialTime = 0;
+
+        //Warm up the compiler so the serial run isn't penalized.
+        SearchConfig warmup = new SearchConfig();
+
+        for (Node node : nodes) {
+            new Search(warmup, new TranspositionTable(warmup.getTableBytes())).run(node, depth, true);
+        }
+
+        System.out.println("threads       time(ms)        nodes    speedup");
+
+        for (int threads = 1; threads <= maxThreads; threads++) {
+
+            SearchConfig config = new SearchConfig();
+            config.setDepth(depth);
+            config.setThreads(threads);
+
+            ForkJoinPool pool   = threads > 1 ? new ForkJoinPool(threads) : null;
+            Node[]       chosen = new Node[nodes.length];
+            long         total  = 0;
+            long         start  = System.nanoTime();
+
+            for (int i = 0; i < nodes.length; i++) {
+
+                Search search = new Search(config, new TranspositionTable(config.getTableBytes()), pool);
+                chosen[i] = search.run(nodes[i], depth, true);
+                total += search.getNodes();
+            }
+
+            double time = (System.nanoTime() - start) / 1e6;
+
+            if (pool != null) {
+                pool.shutdown();
+            }
+
+            if (expected == null) {
+                expected = chosen;
+                serialTime = time;
+            } else {
+                checkSame(expected, chosen, threads);
+            }
+
+            System.out.printf("%7d %14.1f %12d %10.2f%n", threads, time, total, serialTime / time);
+        }
+    }
+
+    /**
+     * Creates random positions with black to move.
+     *
+     * @param count number of positions
+     * @return positions
+     */
+    static Node[] randomPositions(int count) {
+
+        Random random = new Random(SEED);
+        Node[] nodes  = new Node[count];
+
+        for (int i = 0; i < count; i++) {
+
+            long black = 0;
+            long white = 0;
+
+            //Leave most of the board empty so the trees are deep.
+            for (int square = 0; square < BOARD_SIZE * BOARD_SIZE; square++) {
+
+                int cell = random.nextInt(10);
+
+                if (cell == 0) {
+                    black |= 1L << square;
+                } else if (cell == 1) {
+                    white |= 1L << square;
+                }
+            }
+
+            if ((black | white) == 0) {
+                black = 1L << (BOARD_SIZE * BOARD_SIZE / 2);
+            }
+
+            nodes[i] = new Node(black, white, BOARD_SIZE, 'W');
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Checks that the parallel search chose the same nodes as the serial one.
+     *
+     * @param expected nodes chosen by the serial search
+     * @param chosen   nodes chosen by the parallel search
+     * @param threads  number of threads
+     */
+    private static void checkSame(Node[] expected, Node[] chosen, int threads) {
+
+        for (int i = 0; i < expected.length; i++) {
+
+            if (expected[i].getBlack() != chosen[i].getBlack() || expected[i].getWhite() != chosen[i].getWhite()) {
+                throw new IllegalStateException("Position " + i + " differs with " + threads + " threads");
+            }
+        }
+    }
+}
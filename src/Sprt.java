@@ -0,0 +1,165 @@
+/**
+ * The class is a sequential probability ratio test of the Elo difference between two engines.
+ * It tests the hypothesis that the difference is elo0 against the hypothesis that it is elo1,
+ * and decides as soon as the log likelihood ratio of the game results leaves its bounds.
+ * The game has no draws, so every game is a win or a loss of the first engine.
+ */
+public class Sprt {
+
+    //Results of the test.
+    public static final int CONTINUE = 0;
+    public static final int ACCEPT_H0 = -1;
+    public static final int ACCEPT_H1 = 1;
+
+    //Expected score of the first engine under each hypothesis.
+    private final double score0;
+    private final double score1;
+
+    //Bounds of the log likelihood ratio.
+    private final double lowerBound;
+    private final double upperBound;
+
+    //Games won and lost by the first engine.
+    private long wins;
+    private long losses;
+
+    /**
+     * Constructor.
+     *
+     * @param elo0  Elo difference of the null hypothesis
+     * @param elo1  Elo difference of the alternative hypothesis
+     * @param alpha probability of accepting H1 when H0 holds
+     * @param beta  probability of accepting H0 when H1 holds
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+
+        this.score0 = expectedScore(elo0);
+        this.score1 = expectedScore(elo1);
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Returns the expected score of an engine that is stronger by an Elo difference.
+     *
+     * @param elo Elo difference
+     * @return expected score between 0 and 1
+     */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Adds the result of a game.
+     *
+     * @param won did the first engine win
+     */
+    public synchronized void add(boolean won) {
+
+        if (won) {
+            this.wins++;
+        } else {
+            this.losses++;
+        }
+    }
+
+    /**
+     * Returns the log likelihood ratio of H1 over H0.
+     *
+     * @return log likelihood ratio
+     */
+    public synchronized double logLikelihoodRatio() {
+
+        return this.wins * Math.log(this.score1 / this.score0)
+                + this.losses * Math.log((1 - this.score1) / (1 - this.score0));
+    }
+
+    /**
+     * Checks if the test can decide.
+     *
+     * @return CONTINUE, ACCEPT_H0 or ACCEPT_H1
+     */
+    public synchronized int status() {
+
+        double ratio = logLikelihoodRatio();
+
+        if (ratio >= this.upperBound) {
+            return ACCEPT_H1;
+        }
+
+        if (ratio <= this.lowerBound) {
+            return ACCEPT_H0;
+        }
+
+        return CONTINUE;
+    }
+
+    /**
+     * Returns the Elo difference of the first engine estimated from its score.
+     *
+     * @return Elo difference, infinite when one engine won every game
+     */
+    public synchronized double elo() {
+        return elo((double) this.wins / (this.wins + this.losses));
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the Elo difference.
+     *
+     * @return Elo error margin
+     */
+    public synchronized double eloError() {
+
+        long   games = this.wins + this.losses;
+        double score = (double) this.wins / games;
+        double error = 1.96 * Math.sqrt(score * (1 - score) / games);
+
+        return (elo(Math.min(1, score + error)) - elo(Math.max(0, score - error))) / 2;
+    }
+
+    /**
+     * Returns the Elo difference of an engine with the given expected score.
+     *
+     * @param score expected score between 0 and 1
+     * @return Elo difference
+     */
+    private static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Lower bound getter.
+     *
+     * @return log likelihood ratio at which H0 is accepted
+     */
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Upper bound getter.
+     *
+     * @return log likelihood ratio at which H1 is accepted
+     */
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Wins getter.
+     *
+     * @return games won by the first engine
+     */
+    public synchronized long getWins() {
+        return wins;
+    }
+
+    /**
+     * Losses getter.
+     *
+     * @return games lost by the first engine
+     */
+    public synchronized long getLosses() {
+        return losses;
+    }
+}
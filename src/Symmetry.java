@@ -0,0 +1,186 @@
+/**
+ * The class contains the 8 rotations and reflections of the square board.
+ * The game's rules and the heuristic don't change under them, so all the symmetric variants
+ * of a position have the same value.
+ */
+public final class Symmetry {
+
+    //Number of symmetries, the identity is the first.
+    public static final int COUNT = 8;
+
+    //Symmetry indexes.
+    public static final int IDENTITY       = 0;
+    public static final int ROTATE_90      = 1;
+    public static final int ROTATE_180     = 2;
+    public static final int ROTATE_270     = 3;
+    public static final int FLIP_COLUMNS   = 4;
+    public static final int FLIP_ROWS      = 5;
+    public static final int TRANSPOSE      = 6;
+    public static final int ANTI_TRANSPOSE = 7;
+
+    //Inverse of every symmetry.
+    private static final int[] INVERSE = {
+            IDENTITY, ROTATE_270, ROTATE_180, ROTATE_90, FLIP_COLUMNS, FLIP_ROWS, TRANSPOSE, ANTI_TRANSPOSE
+    };
+
+    //Cell every cell moves to, per board size and symmetry.
+    private static final int[][][] SQUARES = new int[Bitboard.MAX_BOARD_SIZE + 1][COUNT][];
+
+    static {
+        for (int size = 1; size <= Bitboard.MAX_BOARD_SIZE; size++) {
+
+            int last = size - 1;
+
+            for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+
+                SQUARES[size][symmetry] = new int[size * size];
+
+                for (int row = 0; row < size; row++) {
+                    for (int column = 0; column < size; column++) {
+
+                        int newRow;
+                        int newColumn;
+
+                        switch (symmetry) {
+                            case ROTATE_90:
+                                newRow = column;
+                                newColumn = last - row;
+                                break;
+                            case ROTATE_180:
+                                newRow = last - row;
+                                newColumn = last - column;
+                                break;
+                            case ROTATE_270:
+                                newRow = last - column;
+                                newColumn = row;
+                                break;
+                            case FLIP_COLUMNS:
+                                newRow = row;
+                                newColumn = last - column;
+                                break;
+                            case FLIP_ROWS:
+                                newRow = last - row;
+                                newColumn = column;
+                                break;
+                            case TRANSPOSE:
+                                newRow = column;
+                                newColumn = row;
+                                break;
+                            case ANTI_TRANSPOSE:
+                                newRow = last - column;
+                                newColumn = last - row;
+                                break;
+                            default:
+                                newRow = row;
+                                newColumn = column;
+                        }
+
+                        SQUARES[size][symmetry][row * size + column] = newRow * size + newColumn;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Symmetry() {
+
+    }
+
+    /**
+     * Returns the cell a cell moves to.
+     * @param square cell index
+     * @param symmetry symmetry index
+     * @param boardSize board size
+     * @return moved cell index
+     */
+    public static int square(int square, int symmetry, int boardSize) {
+        return SQUARES[boardSize][symmetry][square];
+    }
+
+    /**
+     * Returns the symmetry that takes back another one.
+     * @param symmetry symmetry index
+     * @return inverse symmetry index
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+
+    /**
+     * Moves all the cells of a mask.
+     * @param mask cells mask
+     * @param symmetry symmetry index
+     * @param boardSize board size
+     * @return moved mask
+     */
+    public static long transform(long mask, int symmetry, int boardSize) {
+
+        int[] squares = SQUARES[boardSize][symmetry];
+        long  result  = 0;
+
+        while (mask != 0) {
+            result |= 1L << squares[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the symmetries that leave a position as it is.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @param boardSize board size
+     * @return mask of symmetry indexes, the identity is always included
+     */
+    public static int stabilizer(long black, long white, int boardSize) {
+
+        int symmetries = 1 << IDENTITY;
+
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+
+            if (transform(black, symmetry, boardSize) == black && transform(white, symmetry, boardSize) == white) {
+                symmetries |= 1 << symmetry;
+            }
+        }
+
+        return symmetries;
+    }
+
+    /**
+     * Keeps one move of every group of moves that a symmetry of the position maps into each other.
+     * The moves of a group lead to symmetric positions of the same value, and the first one in board
+     * order is the one kept.
+     * @param moves mask of the moves
+     * @param symmetries symmetries that leave the position as it is
+     * @param boardSize board size
+     * @return mask of the kept moves
+     */
+    public static long uniqueMoves(long moves, int symmetries, int boardSize) {
+
+        long unique = moves;
+
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+
+            if ((symmetries & (1 << symmetry)) == 0) {
+                continue;
+            }
+
+            int[] squares = SQUARES[boardSize][symmetry];
+
+            for (long rest = moves; rest != 0; rest &= rest - 1) {
+
+                int square = Long.numberOfTrailingZeros(rest);
+
+                if (squares[square] < square) {
+                    unique &= ~(1L << square);
+                }
+            }
+        }
+
+        return unique;
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+/**
+ * The class stores search results of positions by their hash.
+ * Entries live in two primitive arrays, so even a very large table is only two objects
+ * for the garbage collector. Every bucket has two entries: the first keeps the deepest
+ * result and the second is always replaced.
+ */
+public class TranspositionTable {
+
+    //Bound types.
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    //Size of a single entry in bytes: a key and a data word.
+    public static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    //Entries per bucket.
+    private static final int BUCKET_SIZE = 2;
+
+    //Data word layout: score (32 bits), depth (8), bound (2), move + 1 (8), generation (8), valid (1).
+    private static final int  DEPTH_SHIFT      = 32;
+    private static final int  BOUND_SHIFT      = 40;
+    private static final int  MOVE_SHIFT       = 42;
+    private static final int  GENERATION_SHIFT = 50;
+    private static final long VALID            = 1L << 58;
+
+    //Keys XOR'ed with their data words, so a torn entry never matches.
+    private final long[] keys;
+
+    //Data words.
+    private final long[] data;
+
+    //Mask of the bucket index.
+    private final int bucketMask;
+
+    //Current search generation.
+    private int generation;
+
+    /**
+     * Constructor.
+     *
+     * @param memoryBytes maximum memory used by the table
+     */
+    public TranspositionTable(long memoryBytes) {
+
+        long entries = Math.max(BUCKET_SIZE, memoryBytes / ENTRY_BYTES);
+        long buckets = Long.highestOneBit(Math.min(entries / BUCKET_SIZE, Integer.MAX_VALUE / BUCKET_SIZE));
+
+        this.keys = new long[(int) buckets * BUCKET_SIZE];
+        this.data = new long[(int) buckets * BUCKET_SIZE];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Starts a new search, so entries of older searches are replaced first.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & 0xFF;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key position hash
+     * @return entry data, or 0 when the position isn't stored
+     */
+    public long probe(long key) {
+
+        int index = bucket(key);
+
+        for (int i = index; i < index + BUCKET_SIZE; i++) {
+
+            long entry = this.data[i];
+
+            if ((this.keys[i] ^ entry) == key && entry != 0) {
+                return entry;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Stores a search result.
+     *
+     * @param key   position hash
+     * @param depth searched depth
+     * @param bound bound type of the score
+     * @param score score
+     * @param move  best move, or -1 when unknown
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+
+        long entry = (score & 0xFFFFFFFFL)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | ((long) this.generation << GENERATION_SHIFT)
+                | VALID;
+
+        int  index    = bucket(key);
+        long deepest  = this.data[index];
+        boolean stale = generation(deepest) != this.generation;
+
+        //Keep the deepest result of the current search in the first entry.
+        if (deepest == 0 || stale || depth >= depth(deepest) || (this.keys[index] ^ deepest) == key) {
+
+            this.keys[index] = key ^ entry;
+            this.data[index] = entry;
+        } else {
+
+            this.keys[index + 1] = key ^ entry;
+            this.data[index + 1] = entry;
+        }
+    }
+
+    /**
+     * Returns the number of entries the table holds.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return this.data.length;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.data, 0);
+    }
+
+    /**
+     * Score getter.
+     *
+     * @param entry entry data
+     * @return score
+     */
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Depth getter.
+     *
+     * @param entry entry data
+     * @return depth
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Bound type getter.
+     *
+     * @param entry entry data
+     * @return bound type
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Best move getter.
+     *
+     * @param entry entry data
+     * @return cell index of the move, or -1 when unknown
+     */
+    public static int move(long entry) {
+        return ((int) (entry >>> MOVE_SHIFT) & 0xFF) - 1;
+    }
+
+    /**
+     * Returns the generation an entry was stored in.
+     *
+     * @param entry entry data
+     * @return generation
+     */
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Returns the first entry index of the key's bucket.
+     *
+     * @param key position hash
+     * @return entry index
+     */
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & this.bucketMask) * BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,188 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The class is the batch kernel on the incubating vector API, a lane per position.
+ * The positions of a full vector are handled together and the remaining ones by the scalar kernel.
+ *
+ * Every operation is branch free per lane: a move fills each direction with shifts from the move's
+ * cell through the cells that aren't the player's, and keeps the filled run only where the cell
+ * after it is the player's, which is exactly the run Game.performMovement fills.
+ *
+ * The evaluation stays on the scalar kernel: the runtime's vectors lack a lanewise bit count, and
+ * a parallel bit count on the lanes measured slower than a popcnt instruction per mask.
+ */
+public class VectorBatchKernel extends BatchKernel {
+
+    //Species of the cells masks.
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    //Masks of the board.
+    private final LongVector full;
+    private final LongVector notFirstColumn;
+    private final LongVector notLastColumn;
+
+    //Shifts of the cells masks and the cells that remain on the board, per direction.
+    private final int[]        leftShifts  = new int[Bitboard.DIRECTIONS];
+    private final int[]        rightShifts = new int[Bitboard.DIRECTIONS];
+    private final LongVector[] shiftMasks  = new LongVector[Bitboard.DIRECTIONS];
+
+    /**
+     * Constructor.
+     *
+     * @param boardSize board size of the positions, at most Bitboard.MAX_BOARD_SIZE
+     */
+    public VectorBatchKernel(int boardSize) {
+
+        super(boardSize);
+
+        this.full = LongVector.broadcast(LONGS, Bitboard.full(boardSize));
+        this.notFirstColumn = LongVector.broadcast(LONGS, Bitboard.notFirstColumn(boardSize));
+        this.notLastColumn = LongVector.broadcast(LONGS, Bitboard.notLastColumn(boardSize));
+
+        setShift(Bitboard.RIGHT, 1, this.notFirstColumn);
+        setShift(Bitboard.BOTTOM_RIGHT, boardSize + 1, this.notFirstColumn);
+        setShift(Bitboard.BOTTOM, boardSize, this.full);
+        setShift(Bitboard.BOTTOM_LEFT, boardSize - 1, this.notLastColumn);
+        setShift(Bitboard.LEFT, -1, this.notLastColumn);
+        setShift(Bitboard.TOP_LEFT, -(boardSize + 1), this.notLastColumn);
+        setShift(Bitboard.TOP, -boardSize, this.full);
+        setShift(Bitboard.TOP_RIGHT, -(boardSize - 1), this.notFirstColumn);
+    }
+
+    /**
+     * Sets the shift of a direction.
+     *
+     * @param direction direction index
+     * @param distance  number of bits to shift left, negative to shift right
+     * @param mask      cells that remain on the board after the shift
+     */
+    private void setShift(int direction, int distance, LongVector mask) {
+
+        this.leftShifts[direction] = Math.max(distance, 0);
+        this.rightShifts[direction] = Math.max(-distance, 0);
+        this.shiftMasks[direction] = mask;
+    }
+
+    /**
+     * Returns the number of positions in a vector.
+     *
+     * @return lanes of the preferred species
+     */
+    static int lanes() {
+        return LONGS.length();
+    }
+
+    @Override
+    public int getLanes() {
+        return LONGS.length();
+    }
+
+    @Override
+    public void legalMoves(long[] black, long[] white, long[] moves, int count) {
+
+        int bound = LONGS.loopBound(count);
+
+        for (int i = 0; i < bound; i += LONGS.length()) {
+
+            LongVector occupied = LongVector.fromArray(LONGS, black, i).or(LongVector.fromArray(LONGS, white, i));
+
+            neighbours(occupied).and(occupied.not()).intoArray(moves, i);
+        }
+
+        for (int i = bound; i < count; i++) {
+            moves[i] = Game.legalMoves(black[i], white[i], this.boardSize);
+        }
+    }
+
+    @Override
+    public void makeMoves(long[] black, long[] white, long[] cells, boolean isBlack, int count) {
+
+        int bound = LONGS.loopBound(count);
+
+        for (int i = 0; i < bound; i += LONGS.length()) {
+
+            LongVector blackCells = LongVector.fromArray(LONGS, black, i);
+            LongVector whiteCells = LongVector.fromArray(LONGS, white, i);
+            LongVector cell       = LongVector.fromArray(LONGS, cells, i);
+            LongVector own        = isBlack ? blackCells : whiteCells;
+            LongVector changed    = cell;
+
+            for (int direction = 0; direction < Bitboard.DIRECTIONS; direction++) {
+                changed = changed.or(fill(cell, own, direction));
+            }
+
+            if (isBlack) {
+                blackCells = blackCells.or(changed);
+                whiteCells = whiteCells.and(changed.not());
+            } else {
+                whiteCells = whiteCells.or(changed);
+                blackCells = blackCells.and(changed.not());
+            }
+
+            blackCells.intoArray(black, i);
+            whiteCells.intoArray(white, i);
+        }
+
+        for (int i = bound; i < count; i++) {
+            makeMove(black, white, i, cells[i], isBlack);
+        }
+    }
+
+    /**
+     * Returns the cells a move fills in a direction: the run of cells from the move's cell up to
+     * the nearest player's cell, or nothing when the run doesn't reach one.
+     *
+     * @param cell      cell of the move of every position
+     * @param own       player's cells of every position
+     * @param direction direction index
+     * @return filled cells of every position
+     */
+    private LongVector fill(LongVector cell, LongVector own, int direction) {
+
+        LongVector open = own.not();
+        LongVector run  = shift(cell, direction).and(open);
+
+        //A run is at most boardSize - 1 cells long.
+        for (int step = 2; step < this.boardSize; step++) {
+            run = run.or(shift(run, direction).and(open));
+        }
+
+        VectorMask<Long> reached = shift(run.or(cell), direction).and(own).compare(VectorOperators.NE, 0);
+
+        return LongVector.zero(LONGS).blend(run, reached);
+    }
+
+    /**
+     * Moves all the cells of every mask one step in a direction, the same way Bitboard.shift does.
+     * A direction shifts either left or right, and the other shift is by zero.
+     *
+     * @param mask      cells masks
+     * @param direction direction index
+     * @return shifted masks
+     */
+    private LongVector shift(LongVector mask, int direction) {
+
+        return mask.lanewise(VectorOperators.LSHL, this.leftShifts[direction])
+                .lanewise(VectorOperators.LSHR, this.rightShifts[direction])
+                .and(this.shiftMasks[direction]);
+    }
+
+    /**
+     * Returns all the cells that touch at least one cell of every mask, the same way Bitboard.neighbours does.
+     *
+     * @param mask cells masks
+     * @return neighbours masks
+     */
+    private LongVector neighbours(LongVector mask) {
+
+        LongVector horizontal = mask.lanewise(VectorOperators.LSHL, 1).and(this.notFirstColumn)
+                .or(mask.lanewise(VectorOperators.LSHR, 1).and(this.notLastColumn));
+        LongVector row        = mask.or(horizontal);
+
+        return horizontal.or(row.lanewise(VectorOperators.LSHL, this.boardSize))
+                .or(row.lanewise(VectorOperators.LSHR, this.boardSize)).and(this.full);
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.SplittableRandom;
+
+/**
+ * The class contains the Zobrist keys used for hashing positions.
+ * The hash of a position is the XOR of the keys of its occupied cells, so it can be
+ * updated incrementally when a move changes a few cells.
+ */
+public final class Zobrist {
+
+    //Seed of the keys, fixed so hashes are the same between runs.
+    private static final long SEED = 0x5DEECE66DL;
+
+    //Keys of the black cells.
+    private static final long[] BLACK = new long[Long.SIZE];
+
+    //Keys of the white cells.
+    private static final long[] WHITE = new long[Long.SIZE];
+
+    //Key of the black player being the next to move.
+    public static final long BLACK_TO_MOVE;
+
+    //Keys of the cells a black cell moves to, per board size, cell and symmetry.
+    private static final long[][][] SYMMETRIC_BLACK = new long[Bitboard.MAX_BOARD_SIZE + 1][][];
+
+    //Keys of the cells a white cell moves to, per board size, cell and symmetry.
+    private static final long[][][] SYMMETRIC_WHITE = new long[Bitboard.MAX_BOARD_SIZE + 1][][];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (int i = 0; i < Long.SIZE; i++) {
+            BLACK[i] = random.nextLong();
+            WHITE[i] = random.nextLong();
+        }
+
+        BLACK_TO_MOVE = random.nextLong();
+
+        for (int size = 1; size <= Bitboard.MAX_BOARD_SIZE; size++) {
+
+            SYMMETRIC_BLACK[size] = new long[size * size][Symmetry.COUNT];
+            SYMMETRIC_WHITE[size] = new long[size * size][Symmetry.COUNT];
+
+            for (int square = 0; square < size * size; square++) {
+                for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+
+                    int moved = Symmetry.square(square, symmetry, size);
+
+                    SYMMETRIC_BLACK[size][square][symmetry] = BLACK[moved];
+                    SYMMETRIC_WHITE[size][square][symmetry] = WHITE[moved];
+                }
+            }
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Zobrist() {
+
+    }
+
+    /**
+     * Computes the hash of a position from scratch.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @return hash
+     */
+    public static long hash(long black, long white) {
+
+        return keys(black, BLACK) ^ keys(white, WHITE);
+    }
+
+    /**
+     * Returns the hash change caused by a move.
+     * @param changed cells that received the player's color
+     * @param opponent opponent's cells before the move
+     * @param isBlack is the player black
+     * @return value to XOR into the hash
+     */
+    public static long delta(long changed, long opponent, boolean isBlack) {
+
+        long[] own   = isBlack ? BLACK : WHITE;
+        long[] other = isBlack ? WHITE : BLACK;
+
+        return keys(changed, own) ^ keys(changed & opponent, other);
+    }
+
+    /**
+     * Computes the hashes of all the symmetric variants of a position from scratch, into an existing array.
+     * The hash of a symmetry is the hash of the position that symmetry moves it to.
+     * @param black black cells mask
+     * @param white white cells mask
+     * @param boardSize board size
+     * @param hashes receives the hash per symmetry
+     */
+    public static void symmetricHashes(long black, long white, int boardSize, long[] hashes) {
+
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            hashes[symmetry] = hash(Symmetry.transform(black, symmetry, boardSize),
+                    Symmetry.transform(white, symmetry, boardSize));
+        }
+    }
+
+    /**
+     * Applies the change caused by a move to the hashes of all the symmetric variants.
+     * Applying it again takes the move back.
+     * @param hashes hash per symmetry
+     * @param changed cells that received the player's color
+     * @param flipped opponent cells among the changed cells
+     * @param isBlack is the player black
+     * @param boardSize board size
+     */
+    public static void symmetricDelta(long[] hashes, long changed, long flipped, boolean isBlack, int boardSize) {
+
+        long[][] own   = isBlack ? SYMMETRIC_BLACK[boardSize] : SYMMETRIC_WHITE[boardSize];
+        long[][] other = isBlack ? SYMMETRIC_WHITE[boardSize] : SYMMETRIC_BLACK[boardSize];
+
+        for (; changed != 0; changed &= changed - 1) {
+
+            long[] keys = own[Long.numberOfTrailingZeros(changed)];
+
+            for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                hashes[symmetry] ^= keys[symmetry];
+            }
+        }
+
+        for (; flipped != 0; flipped &= flipped - 1) {
+
+            long[] keys = other[Long.numberOfTrailingZeros(flipped)];
+
+            for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                hashes[symmetry] ^= keys[symmetry];
+            }
+        }
+    }
+
+    /**
+     * XORs the keys of all the cells of a mask.
+     * @param mask cells mask
+     * @param keys keys per cell
+     * @return combined key
+     */
+    private static long keys(long mask, long[] keys) {
+
+        long hash = 0;
+
+        while (mask != 0) {
+            hash ^= keys[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+
+        return hash;
+    }
+}
@@ -1,25 +1,64 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * The main class of the program.
  * It reads the data from the file and applies the Minimax algorithm on the board.
  * Afterwards, writes the solution into the output file.
+ *
+ * Batch mode solves many boards on a pool of threads:
+ * java_ex2 batch &lt;input directory or file&gt; [output file] [threads]
+ *
+ * Corpus mode solves a memory-mapped file of fixed-width board records, see CorpusReader:
+ * java_ex2 corpus &lt;corpus file&gt; [output file] [threads]
+ *
+ * Server mode answers requests until it is stopped, see Server for the protocol:
+ * java_ex2 server [TCP port or unix:socket path], the standard input without one
+ *
+ * When the table of solved positions exists, the games look their results up in it.
  */
 public class java_ex2 {
 
+    //Table of solved positions file path.
+    private static final String RESULTS_FILE_PATH = "results.tbl";
+
     public static void main(String args[]) {
 
+        //Check if running in batch mode.
+        if (args.length > 0 && args[0].equals("batch")) {
+            runBatch(args);
+            return;
+        }
+
+        //Check if running in corpus mode.
+        if (args.length > 0 && args[0].equals("corpus")) {
+            runCorpus(args);
+            return;
+        }
+
+        //Check if running in server mode.
+        if (args.length > 0 && args[0].equals("server")) {
+            runServer(args);
+            return;
+        }
+
+        //Look up the solved positions when they were solved.
+        loadResults(RESULTS_FILE_PATH);
+
         //Input file path.
         final String inputFilePath = "input.txt";
 
         //Output file path.
         final String outputFilePath = "output.txt";
 
-        //Board size.
-        final int boardSize = 5;
+        //Read the data from the input file into the board, its size is the length of the first row.
+        char[][] board = readInput(inputFilePath);
 
-        //Read the data from the input file into the board.
-        char[][] board = readInput(inputFilePath, boardSize);
+        if (board == null) {
+            return;
+        }
 
         //Get the winning player in the game.
         char solution = Game.play(board);
@@ -28,6 +67,148 @@ public class java_ex2 {
         writeOutput(outputFilePath, solution);
     }
 
+    /**
+     * Solves a batch of boards and writes the winners in the input order.
+     *
+     * @param args batch, input path, optional output path and optional number of threads
+     */
+    private static void runBatch(String args[]) {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java_ex2 batch <input directory or file> [output file] [threads]");
+            return;
+        }
+
+        String inputPath  = args[1];
+        String outputPath = args.length > 2 ? args[2] : "output.txt";
+        int    threads    = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        loadResults(RESULTS_FILE_PATH);
+
+        try {
+            List<char[][]> boards = BatchSolver.readBoards(Paths.get(inputPath));
+            BatchSolver    solver = new BatchSolver(threads, new SearchConfig());
+
+            char[] solutions = solver.solve(boards);
+            BatchSolver.writeResults(Paths.get(outputPath), solutions);
+
+            System.out.println(solver.report());
+
+        } catch (IOException e) {
+            System.out.println("Error: batch reading or writing error.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Solves a corpus of fixed-width board records and writes the winners in the record order.
+     *
+     * @param args corpus, corpus path, optional output path and optional number of threads
+     */
+    private static void runCorpus(String args[]) {
+
+        if (args.length < 2) {
+            System.out.println("Usage: java_ex2 corpus <corpus file> [output file] [threads]");
+            return;
+        }
+
+        String inputPath  = args[1];
+        String outputPath = args.length > 2 ? args[2] : "output.txt";
+        int    threads    = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        loadResults(RESULTS_FILE_PATH);
+
+        try (CorpusReader corpus = CorpusReader.open(Paths.get(inputPath));
+             ResultWriter writer = ResultWriter.create(Paths.get(outputPath))) {
+
+            BatchSolver solver = new BatchSolver(threads, new SearchConfig());
+
+            solver.solve(corpus, writer);
+
+            System.out.println(solver.report());
+
+        } catch (IOException e) {
+            System.out.println("Error: corpus reading or writing error.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Serves requests on the standard input or a socket until stopped.
+     *
+     * @param args server and an optional TCP port or unix:socket path
+     */
+    private static void runServer(String args[]) {
+
+        loadResults(RESULTS_FILE_PATH);
+
+        Server server = new Server(new SearchConfig());
+
+        try {
+            if (args.length > 1) {
+                server.serveSocket(args[1]);
+            } else {
+                server.serveStandardInput();
+            }
+
+        } catch (IOException e) {
+            System.out.println("Error: server reading or writing error.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Memory-maps the table of solved positions, if it exists.
+     *
+     * @param filePath table file path
+     */
+    private static void loadResults(String filePath) {
+
+        if (!Files.exists(Paths.get(filePath))) {
+            return;
+        }
+
+        try {
+            Game.setResultTable(ResultTable.open(Paths.get(filePath)));
+
+        } catch (IOException e) {
+            System.out.println("Error: table reading error.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the the board values from the input file.
+     * The board size is the length of the first row.
+     *
+     * @param filePath input file path
+     * @return board with filled values, or null when the file can't be read
+     */
+    public static char[][] readInput(String filePath) {
+
+        //Read the first row to find the board size.
+        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(filePath))) {
+
+            String rowRead = bufferedReader.readLine();
+
+            if (rowRead == null) {
+                System.out.println("Error: empty input file.");
+                return null;
+            }
+
+            return readInput(filePath, rowRead.trim().length());
+
+        } catch (FileNotFoundException e) {
+            System.out.println("Error: File not found.");
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.out.println("Error: file reading error.");
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
     /**
      * Reads the the board values from the input file.
      *
@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the parallel search finds the same values as the serial search,
+ * and stores only entries the serial search agrees with in the transposition table.
+ */
+class ParallelSearchTest {
+
+    //Board size of the positions.
+    private static final int BOARD_SIZE = 5;
+
+    //Search depth.
+    private static final int DEPTH = 6;
+
+    //Number of searched positions.
+    private static final int POSITIONS = 40;
+
+    //Distance from the starting node of the checked table entries.
+    private static final int CHECKED_PLIES = 3;
+
+    //Memory of the transposition tables.
+    private static final long TABLE_BYTES = 1 << 22;
+
+    @Test
+    void parallelSearchMatchesSerialSearch() {
+
+        ForkJoinPool pool = new ForkJoinPool(8);
+
+        try {
+            SplittableRandom random = new SplittableRandom(20171017L);
+
+            for (int i = 0; i < POSITIONS; i++) {
+
+                Node               node     = randomNode(random);
+                TranspositionTable table    = new TranspositionTable(TABLE_BYTES);
+                Search             parallel = new Search(config(8), table, pool);
+                Search             serial   = new Search(config(1), new TranspositionTable(TABLE_BYTES));
+
+                parallel.run(node, true);
+                serial.run(node, true);
+
+                assertEquals(serial.getStats().getScore(), parallel.getStats().getScore(), "root value");
+                assertEquals(serial.getStats().getMove(), parallel.getStats().getMove(), "root move");
+
+                checkEntries(table, node, true, CHECKED_PLIES);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks the table entries of a node and of its descendants against the serial search.
+     *
+     * @param table       table of the parallel search
+     * @param node        node
+     * @param blackToMove is black to move at the node
+     * @param plies       number of plies below the node to check
+     */
+    private static void checkEntries(TranspositionTable table, Node node, boolean blackToMove, int plies) {
+
+        if (node.isTerminal()) {
+            return;
+        }
+
+        long entry = table.probe(node.getHash() ^ (blackToMove ? Zobrist.BLACK_TO_MOVE : 0));
+
+        if (entry != 0) {
+
+            int depth = TranspositionTable.depth(entry);
+            int score = TranspositionTable.score(entry);
+            int value = new Search(config(1), null).run(node, depth, blackToMove).getCost();
+
+            switch (TranspositionTable.bound(entry)) {
+                case TranspositionTable.EXACT:
+                    assertEquals(value, score, "exact entry at depth " + depth);
+                    break;
+                case TranspositionTable.LOWER:
+                    assertTrue(value >= score, "lower bound " + score + " above the value " + value);
+                    break;
+                default:
+                    assertTrue(value <= score, "upper bound " + score + " below the value " + value);
+                    break;
+            }
+        }
+
+        if (plies == 0) {
+            return;
+        }
+
+        for (long moves = node.getFrontier(); moves != 0; moves &= moves - 1) {
+
+            Node child = node.getSuccessor(Long.numberOfTrailingZeros(moves), blackToMove);
+
+            checkEntries(table, child, !blackToMove, plies - 1);
+        }
+    }
+
+    /**
+     * Creates the search settings.
+     *
+     * @param threads number of search threads
+     * @return settings
+     */
+    private static SearchConfig config(int threads) {
+
+        SearchConfig config = new SearchConfig();
+
+        config.setDepth(DEPTH);
+        config.setThreads(threads);
+        config.setSplitDepth(2);
+
+        return config;
+    }
+
+    /**
+     * Creates a position with a few random cells of each color.
+     *
+     * @param random random numbers
+     * @return node with black to move
+     */
+    private static Node randomNode(SplittableRandom random) {
+
+        long black = 0;
+        long white = 0;
+
+        for (int i = 0; i < 6; i++) {
+
+            long cell = 1L << random.nextInt(BOARD_SIZE * BOARD_SIZE);
+
+            if (((black | white) & cell) == 0) {
+
+                if (i % 2 == 0) {
+                    black |= cell;
+                } else {
+                    white |= cell;
+                }
+            }
+        }
+
+        return new Node(black, white, BOARD_SIZE, 'W');
+    }
+}
@@ -0,0 +1,63 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the searches with a pattern evaluator.
+ */
+class PatternEvaluatorTest {
+
+    //Board size of the positions.
+    private static final int BOARD_SIZE = 5;
+
+    //Centre cell index.
+    private static final int CENTRE = 12;
+
+    //Cell index valued by the asymmetric evaluator.
+    private static final int WEIGHTED = 18;
+
+    @Test
+    void asymmetricEvaluatorChoosesItsMove() {
+
+        PatternEvaluator evaluator = new PatternEvaluator(BOARD_SIZE);
+        int[]            weights   = new int[BOARD_SIZE * BOARD_SIZE];
+
+        weights[WEIGHTED] = 100;
+        evaluator.setCellWeights(PatternEvaluator.ROWS, weights);
+
+        //The centre piece is left as it is by every symmetry, but the evaluator only values one cell.
+        Node node = new Node(1L << CENTRE, 0, BOARD_SIZE, 'W');
+
+        for (SearchAlgorithm algorithm : new SearchAlgorithm[] {SearchAlgorithm.ALPHA_BETA, SearchAlgorithm.PVS}) {
+
+            for (boolean symmetricTable : new boolean[] {false, true}) {
+
+                SearchConfig config = new SearchConfig();
+
+                config.setAlgorithm(algorithm);
+                config.setDepth(1);
+                config.setSymmetricTable(symmetricTable);
+                config.setEvaluator(evaluator);
+
+                Search search = new Search(config, new TranspositionTable(config.getTableBytes()));
+
+                search.run(node, true);
+
+                assertEquals(WEIGHTED, search.getStats().getMove(), algorithm + " move");
+                assertEquals(100, search.getStats().getScore(), algorithm + " value");
+            }
+        }
+    }
+
+    @Test
+    void minimaxRejectsEvaluator() {
+
+        SearchConfig config = new SearchConfig();
+
+        config.setAlgorithm(SearchAlgorithm.MINIMAX);
+        config.setEvaluator(PatternEvaluator.standard(BOARD_SIZE));
+
+        assertThrows(IllegalArgumentException.class, () -> Game.play(1L << CENTRE, 0, BOARD_SIZE, config));
+    }
+}